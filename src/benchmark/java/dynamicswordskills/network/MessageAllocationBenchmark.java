@@ -0,0 +1,208 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import dynamicswordskills.network.client.SyncSkillPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketBuffer;
+
+/**
+ * 
+ * Development utility, not part of the mod jar: measures the bytes allocated per message on
+ * the encoding and decoding paths changed to reuse buffers, comparing each against the code
+ * it replaced. Only messages encoded by the {@link MessageBundler}, i.e. with bundlePackets
+ * enabled, reuse a buffer when encoded; the default channel path passes a plain ByteBuf, which
+ * {@link AbstractMessage#toBytes} still wraps, and is measured for comparison.
+ * Run with {@code gradlew allocationBenchmark}. The per-thread allocation counter
+ * is read through {@code com.sun.management.ThreadMXBean}, which HotSpot and OpenJ9 provide;
+ * on other JVMs the benchmark reports that it cannot measure and exits.
+ *
+ */
+public class MessageAllocationBenchmark
+{
+	private static final int WARMUP = 200000;
+	private static final int ITERATIONS = 1000000;
+
+	/** Number of entries per bundle, and of events per combo update */
+	private static final int ENTRIES = 8;
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/** ThreadMXBean extension method returning the bytes allocated by a thread, or null if unavailable */
+	private static Method allocatedBytes;
+
+	/** Keeps results reachable so the work cannot be optimized away */
+	private static long sink;
+
+	private static abstract class Case
+	{
+		private final String name;
+
+		/** Number of messages handled by each call to {@link #run} */
+		private final int messages;
+
+		Case(String name, int messages) {
+			this.name = name;
+			this.messages = messages;
+		}
+
+		/** Performs one message's worth of work */
+		abstract void run() throws Exception;
+	}
+
+	public static void main(String[] args) throws Exception {
+		try {
+			Class<?> extension = Class.forName("com.sun.management.ThreadMXBean");
+			if (extension.isInstance(THREADS)) {
+				allocatedBytes = extension.getMethod("getThreadAllocatedBytes", long.class);
+			}
+		} catch (ClassNotFoundException e) {}
+		if (allocatedBytes == null) {
+			System.out.println("This JVM does not report per-thread allocation; nothing to measure");
+			return;
+		}
+		final AbstractMessage<?> message = new SyncSkillPacket(1, 2, new byte[] {0, 1, 3, 2, 5, 4}, true);
+		final ByteBuf target = Unpooled.buffer();
+		final PacketBuffer view = new PacketBuffer(Unpooled.buffer());
+		final PacketBuffer bundle = new PacketBuffer(Unpooled.buffer());
+		for (int i = 0; i < ENTRIES; ++i) {
+			bundle.writeByte(0);
+			int lengthIndex = bundle.writerIndex();
+			bundle.writeByte(0);
+			message.toBytes(bundle);
+			bundle.setByte(lengthIndex, bundle.writerIndex() - lengthIndex - 1);
+		}
+		final AbstractMessage<?> decoded = new SyncSkillPacket();
+		Case[][] cases = {
+			{
+				new Case("encode, wrapping the buffer (before)", 1) {
+					@Override
+					void run() throws Exception {
+						target.clear();
+						message.write(new PacketBuffer(target));
+					}
+				},
+				new Case("encode, plain ByteBuf as from FML (default)", 1) {
+					@Override
+					void run() {
+						target.clear();
+						message.toBytes(target);
+					}
+				},
+				new Case("encode, reusing the bundler's view (after)", 1) {
+					@Override
+					void run() {
+						view.clear();
+						message.toBytes(view);
+					}
+				}
+			},
+			{
+				new Case("combo update snapshot, new buffer (before)", 1) {
+					@Override
+					void run() {
+						PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
+						writeEvents(buffer);
+						byte[] data = new byte[buffer.readableBytes()];
+						buffer.readBytes(data);
+						sink += data.length;
+					}
+				},
+				new Case("combo update snapshot, scratch buffer (after)", 1) {
+					@Override
+					void run() {
+						PacketBuffer buffer = AbstractMessage.getScratchBuffer();
+						writeEvents(buffer);
+						byte[] data = new byte[buffer.readableBytes()];
+						buffer.readBytes(data);
+						sink += data.length;
+					}
+				}
+			},
+			{
+				new Case("bundle entry decode, slice per entry (before)", ENTRIES) {
+					@Override
+					void run() throws Exception {
+						bundle.readerIndex(0);
+						for (int i = 0; i < ENTRIES; ++i) {
+							bundle.readUnsignedByte();
+							decoded.read(new PacketBuffer(bundle.readSlice(bundle.readVarInt())));
+						}
+					}
+				},
+				new Case("bundle entry decode, bounded view (after)", ENTRIES) {
+					@Override
+					void run() {
+						bundle.readerIndex(0);
+						for (int i = 0; i < ENTRIES; ++i) {
+							bundle.readUnsignedByte();
+							int end = bundle.readVarInt() + bundle.readerIndex();
+							int writerIndex = bundle.writerIndex();
+							bundle.writerIndex(end);
+							decoded.fromBytes(bundle);
+							bundle.readerIndex(end);
+							bundle.writerIndex(writerIndex);
+						}
+					}
+				}
+			}
+		};
+		for (Case[] pair : cases) {
+			for (Case c : pair) {
+				System.out.println(String.format("%-50s %8.1f bytes per message", c.name, measure(c)));
+			}
+		}
+		System.out.println("(sink " + sink + ")");
+	}
+
+	/**
+	 * Writes a combo update carrying {@link #ENTRIES} events, as {@link dynamicswordskills.skills.Combo#writePendingEvents} does
+	 */
+	private static void writeEvents(PacketBuffer buffer) {
+		buffer.writeBoolean(false);
+		buffer.writeByte(3);
+		buffer.writeInt(12345);
+		buffer.writeVarInt(ENTRIES);
+		for (int i = 0; i < ENTRIES; ++i) {
+			buffer.writeByte(1);
+			buffer.writeFloat(4.5F);
+			buffer.writeInt(i);
+		}
+	}
+
+	/**
+	 * @return Average number of bytes allocated per message
+	 */
+	private static double measure(Case c) throws Exception {
+		for (int i = 0; i < WARMUP; ++i) {
+			c.run();
+		}
+		Long thread = Thread.currentThread().getId();
+		long start = (Long) allocatedBytes.invoke(THREADS, thread);
+		for (int i = 0; i < ITERATIONS; ++i) {
+			c.run();
+		}
+		long allocated = (Long) allocatedBytes.invoke(THREADS, thread) - start;
+		return (double) allocated / ((double) ITERATIONS * c.messages);
+	}
+}
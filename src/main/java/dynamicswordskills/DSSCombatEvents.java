@@ -25,11 +25,9 @@ import dynamicswordskills.network.PacketDispatcher;
 import dynamicswordskills.network.client.SyncConfigPacket;
 import dynamicswordskills.ref.Config;
 import dynamicswordskills.ref.ModSounds;
-import dynamicswordskills.skills.ArmorBreak;
 import dynamicswordskills.skills.ICombo;
-import dynamicswordskills.skills.LeapingBlow;
-import dynamicswordskills.skills.MortalDraw;
 import dynamicswordskills.skills.SkillBase;
+import dynamicswordskills.util.EntitySpatialIndex;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.item.EntityItem;
 import net.minecraft.entity.monster.EntityBlaze;
@@ -61,6 +59,7 @@ import net.minecraftforge.event.entity.living.LivingFallEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerFlyableFallEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.PlayerEvent.PlayerLoggedInEvent;
@@ -159,18 +158,16 @@ public class DSSCombatEvents
 	 */
 	@SubscribeEvent(priority=EventPriority.LOWEST)
 	public void onHurt(LivingHurtEvent event) {
+		DSSPlayerInfo attacker = null;
 		if (event.getSource().getTrueSource() instanceof EntityPlayer) {
-			EntityPlayer player = (EntityPlayer) event.getSource().getTrueSource();
-			DSSPlayerInfo skills = DSSPlayerInfo.get(player);
-			ICombo combo = skills.getComboSkill();
+			attacker = DSSPlayerInfo.get((EntityPlayer) event.getSource().getTrueSource());
+			ICombo combo = attacker.getComboSkill();
 			if (combo != null && combo.getCombo() != null && !combo.getCombo().isFinished()) {
 				event.setAmount(event.getAmount() + combo.getCombo().getNumHits());
 			}
-			if (skills.isSkillActive(SkillBase.armorBreak)) {
-				((ArmorBreak) skills.getPlayerSkill(SkillBase.armorBreak)).onImpact(player, event);
+			attacker.onImpact(event);
+			if (event.getAmount() <= 0.0F) {
 				return;
-			} else if (skills.isSkillActive(SkillBase.mortalDraw)) {
-				((MortalDraw) skills.getPlayerSkill(SkillBase.mortalDraw)).onImpact(player, event);
 			}
 		}
 		if (event.getAmount() > 0.0F && event.getEntity() instanceof EntityPlayer) {
@@ -180,8 +177,8 @@ public class DSSCombatEvents
 				combo.onPlayerHurt(player, event);
 			}
 		}
-		if (event.getAmount() > 0.0F && event.getSource().getTrueSource() instanceof EntityPlayer) {
-			DSSPlayerInfo.get((EntityPlayer) event.getSource().getTrueSource()).onPostImpact(event);
+		if (event.getAmount() > 0.0F && attacker != null) {
+			attacker.onPostImpact(event);
 		}
 	}
 
@@ -207,6 +204,11 @@ public class DSSCombatEvents
 		}
 	}
 
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		EntitySpatialIndex.onWorldUnload(event.getWorld());
+	}
+
 	@SubscribeEvent
 	public void onClonePlayer(PlayerEvent.Clone event) {
 		DSSPlayerInfo.get(event.getEntityPlayer()).copy(DSSPlayerInfo.get(event.getOriginal()));
@@ -220,9 +222,7 @@ public class DSSCombatEvents
 		if (event.getEntity() instanceof EntityPlayer) {
 			EntityPlayer player = (EntityPlayer) event.getEntity();
 			DSSPlayerInfo skills = DSSPlayerInfo.get(player);
-			if (skills.isSkillActive(SkillBase.leapingBlow)) {
-				((LeapingBlow) skills.getPlayerSkill(SkillBase.leapingBlow)).onImpact(player, event.getDistance());
-			}
+			skills.onFall(event.getDistance());
 			if (skills.reduceFallAmount > 0.0F) {
 				event.setDistance(event.getDistance() - skills.reduceFallAmount);
 				skills.reduceFallAmount = 0.0F;
@@ -234,9 +234,7 @@ public class DSSCombatEvents
 	public void onCreativeFall(PlayerFlyableFallEvent event) {
 		DSSPlayerInfo skills = DSSPlayerInfo.get(event.getEntityPlayer());
 		if (skills != null) {
-			if (skills.isSkillActive(SkillBase.leapingBlow)) {
-				((LeapingBlow) skills.getPlayerSkill(SkillBase.leapingBlow)).onImpact(event.getEntityPlayer(), event.getDistance());
-			}
+			skills.onFall(event.getDistance());
 		}
 	}
 }
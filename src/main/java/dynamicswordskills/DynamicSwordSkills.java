@@ -29,6 +29,7 @@ import dynamicswordskills.command.DSSCommands;
 import dynamicswordskills.entity.EntityLeapingBlow;
 import dynamicswordskills.entity.EntitySwordBeam;
 import dynamicswordskills.entity.IPlayerInfo.CapabilityPlayerInfo;
+import dynamicswordskills.entity.SkillDataWriter;
 import dynamicswordskills.item.ItemSkillOrb;
 import dynamicswordskills.loot.LootHandler;
 import dynamicswordskills.network.PacketDispatcher;
@@ -44,6 +45,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.SoundEvent;
 import net.minecraftforge.client.event.ModelRegistryEvent;
+import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.fml.common.Loader;
@@ -54,6 +56,7 @@ import net.minecraftforge.fml.common.event.FMLInterModComms;
 import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppedEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.registry.EntityEntry;
@@ -144,6 +147,12 @@ public class DynamicSwordSkills
 	@Mod.EventHandler
 	public void onServerStarting(FMLServerStartingEvent event) {
 		DSSCommands.registerCommands(event);
+		SkillDataWriter.start(DimensionManager.getCurrentSaveRootDirectory());
+	}
+
+	@Mod.EventHandler
+	public void onServerStopped(FMLServerStoppedEvent event) {
+		SkillDataWriter.stop();
 	}
 
 	@Mod.EventHandler
@@ -24,6 +24,7 @@ import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.network.PacketDispatcher;
 import dynamicswordskills.network.bidirectional.ActivateSkillPacket;
 import dynamicswordskills.network.server.OpenGuiPacket;
+import dynamicswordskills.network.server.TargetingSettingsPacket;
 import dynamicswordskills.ref.Config;
 import dynamicswordskills.skills.ILockOnTarget;
 import dynamicswordskills.skills.SkillBase;
@@ -95,6 +96,7 @@ public class DSSKeyHandler
 				} else {
 					PlayerUtils.sendTranslatedChat(mc.player, "key.dss.toggleat", new TextComponentTranslation(Config.toggleAutoTarget() ? "key.dss.enable" : "key.dss.disable").getUnformattedText());
 				}
+				PacketDispatcher.sendToServer(new TargetingSettingsPacket(Config.autoTargetEnabled(), Config.canTargetPlayers()));
 			} else if (kb == keys[KEY_SKILLS_GUI].getKeyCode()) {
 				PacketDispatcher.sendToServer(new OpenGuiPacket(CommonProxy.GUI_SKILLS));
 			}  else if (kb == keys[KEY_TOGGLE_HUD].getKeyCode()) {
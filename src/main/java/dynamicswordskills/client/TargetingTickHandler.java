@@ -42,9 +42,10 @@ public class TargetingTickHandler
 	@SubscribeEvent
 	public void onRenderTick(RenderTickEvent event) {
 		if (event.phase == Phase.START) {
-			if (mc.player != null && DSSPlayerInfo.get(mc.player) != null) {
-				DSSPlayerInfo.get(mc.player).onRenderTick(event.renderTickTime);
-				float swing = DSSPlayerInfo.get(mc.player).armSwing;
+			DSSPlayerInfo skills = (mc.player == null ? null : DSSPlayerInfo.get(mc.player));
+			if (skills != null) {
+				skills.onRenderTick(event.renderTickTime);
+				float swing = skills.armSwing;
 				if (swing > 0.0F) {
 					mc.player.swingProgress = swing;
 					mc.player.prevSwingProgress = swing;
@@ -17,8 +17,6 @@
 
 package dynamicswordskills.client.gui;
 
-import java.util.List;
-
 import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.network.PacketDispatcher;
 import dynamicswordskills.network.server.EndComboPacket;
@@ -85,10 +83,11 @@ public class ComboOverlay extends AbstractGuiOverlay
 				this.combo = iCombo.getCombo();
 				this.lastComboSize = this.combo.getNumHits();
 				this.displayStartTime = Minecraft.getSystemTime();
-				if (this.combo.isFinished()) {
-					iCombo.setCombo(null);
-					PacketDispatcher.sendToServer(new EndComboPacket((SkillBase) iCombo));
-				}
+			}
+			// combos may finish in place, so check even if it is the same instance
+			if (this.combo.isFinished()) {
+				iCombo.setCombo(null);
+				PacketDispatcher.sendToServer(new EndComboPacket((SkillBase) iCombo));
 			}
 		}
 		if (this.combo != null && this.combo.getNumHits() > 0) {
@@ -105,7 +104,7 @@ public class ComboOverlay extends AbstractGuiOverlay
 	@Override
 	protected void setup(ScaledResolution resolution) {
 		// Minimum display of 3 lines: combo name, size and damage
-		int n = Math.min(this.combo.getDamageList().size(), Config.getHitsToDisplay());
+		int n = Math.min(this.combo.getNumHits(), Config.getHitsToDisplay());
 		this.height = (n + 3) * this.mc.fontRenderer.FONT_HEIGHT;
 		this.label = new TextComponentTranslation(this.combo.isFinished() ? "combo.finished" : "combo.combo", this.combo.getLabel()).getUnformattedText();
 		this.comboSize = new TextComponentTranslation("combo.size", this.combo.getNumHits(), this.combo.getMaxNumHits()).getUnformattedText();
@@ -124,11 +123,11 @@ public class ComboOverlay extends AbstractGuiOverlay
 		this.mc.fontRenderer.drawString(this.comboSize, xPos + this.getOffset(this.comboSize), yPos, 0xFFFFFF, true);
 		yPos += this.mc.fontRenderer.FONT_HEIGHT;
 		this.mc.fontRenderer.drawString(this.comboDamage, xPos + this.getOffset(this.comboDamage), yPos, 0xFFFFFF, true);
-		List<Float> damageList = this.combo.getDamageList();
-		int n = Math.min(damageList.size(), Config.getHitsToDisplay());
+		int numHits = this.combo.getNumHits();
+		int n = Math.min(numHits, Config.getHitsToDisplay());
 		for (int i = 0; i < n; ++i) {
 			yPos += this.mc.fontRenderer.FONT_HEIGHT;
-			String s = String.format("+%.1f", damageList.get(damageList.size() - i - 1));
+			String s = String.format("+%.1f", this.combo.getHitDamage(numHits - i - 1));
 			this.mc.fontRenderer.drawString(s, xPos + this.getOffset(s), yPos, 0xFFFFFF, true);
 		}
 	}
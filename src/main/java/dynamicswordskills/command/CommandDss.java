@@ -0,0 +1,138 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.command;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import dynamicswordskills.network.BundlePacket;
+import dynamicswordskills.network.NetworkStats;
+import dynamicswordskills.ref.Config;
+import dynamicswordskills.util.LineOfSightCache;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommand;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextComponentTranslation;
+
+public class CommandDss extends CommandBase
+{
+	public static final ICommand INSTANCE = new CommandDss();
+
+	private CommandDss() {}
+
+	@Override
+	public String getName() {
+		return "dss";
+	}
+
+	@Override
+	public int getRequiredPermissionLevel() {
+		return 2;
+	}
+
+	/**
+	 * dss net [reset] OR dss sight [reset]
+	 */
+	@Override
+	public String getUsage(ICommandSender sender) {
+		return "commands.dss.usage";
+	}
+
+	@Override
+	public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+		if (args == null || args.length < 1 || args.length > 2) {
+			throw new WrongUsageException(getUsage(sender));
+		} else if (("sight").equals(args[0])) {
+			executeSight(sender, args);
+			return;
+		} else if (!("net").equals(args[0])) {
+			throw new WrongUsageException(getUsage(sender));
+		}
+		if (args.length == 2) {
+			if (!("reset").equals(args[1])) {
+				throw new WrongUsageException(getUsage(sender));
+			}
+			NetworkStats.INSTANCE.reset();
+			sender.sendMessage(new TextComponentTranslation("commands.dss.net.reset"));
+			return;
+		}
+		if (!NetworkStats.isEnabled()) {
+			throw new CommandException("commands.dss.net.disabled");
+		}
+		sendTraffic(sender, true);
+		sendTraffic(sender, false);
+	}
+
+	/**
+	 * dss sight [reset]: reports how often {@link LineOfSightCache} reused a result, to help tune its config window
+	 */
+	private void executeSight(ICommandSender sender, String[] args) throws CommandException {
+		if (args.length == 2) {
+			if (!("reset").equals(args[1])) {
+				throw new WrongUsageException(getUsage(sender));
+			}
+			LineOfSightCache.resetCounters();
+			sender.sendMessage(new TextComponentTranslation("commands.dss.sight.reset"));
+			return;
+		}
+		long hits = LineOfSightCache.getHits();
+		long misses = LineOfSightCache.getMisses();
+		String rate = String.format("%.1f", (hits + misses == 0 ? 0.0D : 100.0D * hits / (hits + misses)));
+		sender.sendMessage(new TextComponentTranslation("commands.dss.sight", hits, misses, rate, Config.getSightCacheTicks()));
+	}
+
+	private void sendTraffic(ICommandSender sender, boolean outgoing) {
+		List<NetworkStats.Traffic> list = NetworkStats.INSTANCE.getTraffic(outgoing);
+		sender.sendMessage(new TextComponentTranslation(outgoing ? "commands.dss.net.outbound" : "commands.dss.net.inbound"));
+		if (list.isEmpty()) {
+			sender.sendMessage(new TextComponentTranslation("commands.dss.net.none"));
+		}
+		NetworkStats.Traffic bundles = null;
+		for (NetworkStats.Traffic traffic : list) {
+			// bundles only carry the messages already listed, so are shown apart rather than as another message
+			if (traffic.type == BundlePacket.class) {
+				bundles = traffic;
+				continue;
+			}
+			String line = String.format("  %s: %d, %s", traffic.type.getSimpleName(), traffic.getCount(), NetworkStats.formatBytes(traffic.getBytes()));
+			if (!outgoing) {
+				line += String.format(", decode %.3f ms, queue %.3f ms (max %.3f ms)", traffic.getAverageDecodeMillis(), traffic.getAverageQueueMillis(), traffic.getMaxQueueMillis());
+			}
+			sender.sendMessage(new TextComponentString(line));
+		}
+		if (bundles != null) {
+			sender.sendMessage(new TextComponentTranslation("commands.dss.net.bundles", bundles.getCount(), NetworkStats.formatBytes(bundles.getBytes())));
+		}
+	}
+
+	@Override
+	public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos pos) {
+		if (args.length == 1) {
+			return CommandBase.getListOfStringsMatchingLastWord(args, "net", "sight");
+		} else if (args.length == 2) {
+			return CommandBase.getListOfStringsMatchingLastWord(args, "reset");
+		}
+		return null;
+	}
+}
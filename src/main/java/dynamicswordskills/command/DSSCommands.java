@@ -28,5 +28,6 @@ public class DSSCommands
 		event.registerServerCommand(CommandGrantSkill.INSTANCE);
 		event.registerServerCommand(CommandRemoveSkill.INSTANCE);
 		event.registerServerCommand(CommandWeaponRegistry.INSTANCE);
+		event.registerServerCommand(CommandDss.INSTANCE);
 	}
 }
@@ -17,33 +17,38 @@
 
 package dynamicswordskills.entity;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.MapMaker;
 
 import dynamicswordskills.DynamicSwordSkills;
 import dynamicswordskills.api.ISkillProvider;
 import dynamicswordskills.network.PacketDispatcher;
 import dynamicswordskills.network.client.SyncPlayerInfoPacket;
 import dynamicswordskills.network.client.SyncSkillPacket;
+import dynamicswordskills.network.server.RequestPlayerInfoPacket;
 import dynamicswordskills.ref.Config;
+import dynamicswordskills.skills.Combo;
 import dynamicswordskills.skills.ICombo;
 import dynamicswordskills.skills.ILockOnTarget;
 import dynamicswordskills.skills.SkillActive;
 import dynamicswordskills.skills.SkillBase;
+import dynamicswordskills.skills.SkillTable;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.settings.KeyBinding;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability.IStorage;
-import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.event.entity.living.LivingAttackEvent;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
 import net.minecraftforge.fml.relauncher.Side;
@@ -54,13 +59,54 @@ public class DSSPlayerInfo
 	/** Maximum time the player may be prevented from taking a left-click action */
 	private final static int MAX_ATTACK_DELAY = 50;
 
+	/**
+	 * Player info of every player with the capability attached; keys are compared by identity, so client
+	 * and server players with the same entity id never collide. Values are weak as well, since each one
+	 * holds its player strongly; both stay reachable through the player's capability while it is in use.
+	 */
+	private final static Map<EntityPlayer, DSSPlayerInfo> INSTANCES = new MapMaker().weakKeys().weakValues().makeMap();
+
+	/** Seeds the server-side {@link #syncVersion} so versions from a previous session never match */
+	private final static Random SYNC_VERSION_SEED = new Random();
+
+	/** Skill levels last synchronized to the client player, used to restore its skills when the client player is recreated */
+	private static byte[] clientSkillCache = new byte[0];
+
+	/** Version of the {@link #clientSkillCache}, or -1 if there is nothing cached */
+	private static int clientCacheVersion = -1;
+
 	private final EntityPlayer player;
 
 	/** Time remaining until player may perform another left-click action, such as an attack */
 	private int attackTime;
 
-	/** Stores information on the player's skills */
-	private final Map<Byte, SkillBase> skills;
+	/** Stores information on the player's skills, indexed by skill id */
+	private final SkillTable skills;
+
+	/**
+	 * Subset of {@link #skills} with {@link SkillBase#hasPendingUpdate pending updates}; only these
+	 * skills are updated each tick, so idle skills cost nothing until they are scheduled again
+	 */
+	private final SkillTable updatingSkills;
+
+	/** Ids of skills whose level changed since they were last synchronized to the client; server side only */
+	private final BitSet dirtySkills = new BitSet();
+
+	/**
+	 * Version of the skill data last sent to (server) or applied by (client) the client; each
+	 * delta is built on top of a specific version, so the client can tell when it missed one.
+	 * Always non-negative on the server; -1 on the client until the first synchronization.
+	 */
+	private int syncVersion;
+
+	/** Whether the client is waiting on a requested full synchronization; client side only */
+	private boolean awaitingFullSync;
+
+	/** Combo with updates waiting to be sent at the end of this tick; server side only */
+	private Combo pendingCombo;
+
+	/** The player's client side targeting preferences, as last reported by the client; server side only */
+	private boolean autoTarget = true, targetPlayers = true;
 
 	/** Used to temporarily store skill used from ISkillItem */
 	private SkillBase itemSkill = null;
@@ -74,9 +120,39 @@ public class DSSPlayerInfo
 	/** Slot of the item providing the persistent dummy sword skill, if any */
 	private int persistentDummySkillSlot = -1;
 
+	/**
+	 * Effective skill instance for each id, as returned by {@link #getPlayerSkill}; only
+	 * rebuilt when one of the resolved* values it was built from no longer matches
+	 */
+	private final SkillBase[] resolvedSkills;
+
+	/** Item skill in place when {@link #resolvedSkills} was built */
+	private SkillBase resolvedItemSkill;
+
+	/** Dummy sword skill in place when {@link #resolvedSkills} was built */
+	private SkillBase resolvedDummySkill;
+
+	/** {@link SkillTable#getModCount() Modification count} of the skills when {@link #resolvedSkills} was built */
+	private int resolvedSkillsModCount = -1;
+
+	/** Value of {@link Config#isSpinAttackRequired()} when {@link #resolvedSkills} was built */
+	private boolean resolvedSpinRequired;
+
+	/** Index of the skill-providing items in the player's hot bar */
+	private final HotbarSkillIndex hotbar = new HotbarSkillIndex();
+
 	/** Currently active skills */
 	private final List<SkillActive> activeSkills = new LinkedList<SkillActive>();
 
+	/**
+	 * Currently active skills listening for each {@link SkillActive#getListenerHooks hook}, indexed
+	 * by the hook flag's bit position and ordered by skill id; rebuilt when {@link #activeSkills} changes
+	 */
+	private final SkillActive[][] hookListeners = new SkillActive[SkillActive.NUM_HOOKS][];
+
+	/** Whether {@link #hookListeners} needs to be rebuilt */
+	private boolean hookListenersChanged = true;
+
 	/**
 	 * Currently animating skill that {@link SkillActive#hasAnimation() has an animation};
 	 * it may or may not currently be {@link SkillActive#isAnimating() animating}
@@ -95,7 +171,11 @@ public class DSSPlayerInfo
 
 	public DSSPlayerInfo(EntityPlayer player) {
 		this.player = player;
-		this.skills = new HashMap<Byte, SkillBase>(SkillBase.getNumSkills());
+		this.skills = new SkillTable(SkillBase.getSkillTableSize());
+		this.updatingSkills = new SkillTable(SkillBase.getSkillTableSize());
+		this.resolvedSkills = new SkillBase[SkillBase.getSkillTableSize()];
+		INSTANCES.put(player, this);
+		this.syncVersion = (player.getEntityWorld().isRemote ? -1 : SYNC_VERSION_SEED.nextInt() & Integer.MAX_VALUE);
 	}
 
 	/**
@@ -132,9 +212,9 @@ public class DSSPlayerInfo
 		} else {
 			// TODO change skill storage to use unlocalized name instead of id
 			SkillBase dummy = null;
-			for (SkillBase skill : skills.values()) {
-				if (skill.getUnlocalizedName().equals(name)) {
-					dummy = skill;
+			for (int id = skills.nextId(0); id > -1; id = skills.nextId(id + 1)) {
+				if (skills.get(id).getUnlocalizedName().equals(name)) {
+					dummy = skills.get(id);
 					break;
 				}
 			}
@@ -148,12 +228,11 @@ public class DSSPlayerInfo
 
 	private void removeSkill(SkillBase skill) {
 		SkillBase dummy = skill.newInstance();
-		skills.put(dummy.getId(), dummy);
+		skills.put(dummy);
 		validateSkills();
 		skills.remove(dummy.getId());
-		if (player instanceof EntityPlayerMP) {
-			PacketDispatcher.sendTo(new SyncSkillPacket(dummy), (EntityPlayerMP) player);
-		}
+		updatingSkills.remove(dummy.getId());
+		markSkillDirty(dummy.getId());
 	}
 
 	/**
@@ -162,13 +241,12 @@ public class DSSPlayerInfo
 	public void resetSkills() {
 		// need level zero skills for validation, specifically for attribute-affecting skills
 		for (SkillBase skill : SkillBase.getSkills()) {
-			skills.put(skill.getId(), skill.newInstance());
+			skills.put(skill.newInstance());
 		}
 		validateSkills();
 		skills.clear();
-		if (player instanceof EntityPlayerMP) {
-			PacketDispatcher.sendTo(new SyncPlayerInfoPacket(this).setReset(), (EntityPlayerMP) player);
-		}
+		updatingSkills.clear();
+		syncAllSkills(false);
 	}
 
 	/** Returns true if the player has at least one level in the specified skill */
@@ -201,22 +279,20 @@ public class DSSPlayerInfo
 				level = dummySwordSkill.getLevel();
 			}
 		} else if (id == SkillBase.mortalDraw.getId() && (itemSkill == null || dummySwordSkill == null)) {
-			for (int i = 0; i < 9; ++i) {
-				ItemStack stack = player.inventory.getStackInSlot(i);
-				if (stack.getItem() instanceof ISkillProvider && ((ISkillProvider) stack.getItem()).getSkillId(stack) == id) {
-					if (itemSkill == null) {
-						itemSkill = SkillBase.getSkillFromItem(stack, (ISkillProvider) stack.getItem());
-						if (itemSkill != null && itemSkill.getLevel() > getTrueSkillLevel(id)) {
-							level = itemSkill.getLevel();
-						}
+			HotbarSkillIndex index = getHotbarIndex();
+			int i = index.getSkillSlot(id);
+			if (i > -1) {
+				if (itemSkill == null) {
+					itemSkill = index.createSkill(i);
+					if (itemSkill != null && itemSkill.getLevel() > getTrueSkillLevel(id)) {
+						level = itemSkill.getLevel();
 					}
-					if (dummySwordSkill == null && ((ISkillProvider) stack.getItem()).grantsBasicSwordSkill(stack)
-							&& getTrueSkillLevel(SkillBase.swordBasic.getId()) < 1)
-					{
-						dummySwordSkill = SkillBase.createLeveledSkill(SkillBase.swordBasic.getId(), (byte) 1);
-						persistentDummySkillSlot = i;
-					}
-					break;
+				}
+				if (dummySwordSkill == null && index.grantsBasicSwordSkill(i)
+						&& getTrueSkillLevel(SkillBase.swordBasic.getId()) < 1)
+				{
+					dummySwordSkill = SkillBase.createLeveledSkill(SkillBase.swordBasic.getId(), (byte) 1);
+					persistentDummySkillSlot = i;
 				}
 			}
 		}
@@ -230,7 +306,7 @@ public class DSSPlayerInfo
 
 	/** Returns the player's true skill level, ignoring any ISkillItem that may be equipped */
 	private byte getTrueSkillLevel(byte id) {
-		return (skills.containsKey(id) ? skills.get(id).getLevel() : 0);
+		return skills.getLevel(id);
 	}
 
 	/**
@@ -293,8 +369,10 @@ public class DSSPlayerInfo
 	 */
 	@SideOnly(Side.CLIENT)
 	public boolean onKeyPressed(Minecraft mc, KeyBinding key) {
-		for (SkillBase skill : skills.values()) {
+		for (int id = skills.nextId(0); id > -1; id = skills.nextId(id + 1)) {
+			SkillBase skill = skills.get(id);
 			if (skill instanceof SkillActive && ((SkillActive) skill).isKeyListener(mc, key)) {
+				updatingSkills.put(skill);
 				if (((SkillActive) skill).keyPressed(mc, key, player)) {
 					return true;
 				}
@@ -306,20 +384,69 @@ public class DSSPlayerInfo
 		return false;
 	}
 
+	/**
+	 * Returns the currently active skills that implement the given hook, ordered by skill id
+	 * @param hook One of the {@link SkillActive} HOOK_ flags
+	 */
+	private SkillActive[] getHookListeners(int hook) {
+		if (hookListenersChanged) {
+			for (int i = 0; i < hookListeners.length; ++i) {
+				int flag = 1 << i;
+				SkillActive[] listeners = new SkillActive[activeSkills.size()];
+				int n = 0;
+				for (SkillActive skill : activeSkills) {
+					if ((skill.getListenerHooks() & flag) == 0) {
+						continue;
+					}
+					// insert by id, skipping any instance already listed
+					int j = n;
+					while (j > 0 && listeners[j - 1].getId() > skill.getId()) {
+						--j;
+					}
+					boolean listed = false;
+					for (int k = 0; k < n && !listed; ++k) {
+						listed = (listeners[k] == skill);
+					}
+					if (!listed) {
+						System.arraycopy(listeners, j, listeners, j + 1, n - j);
+						listeners[j] = skill;
+						++n;
+					}
+				}
+				hookListeners[i] = (n == listeners.length ? listeners : Arrays.copyOf(listeners, n));
+			}
+			hookListenersChanged = false;
+		}
+		return hookListeners[Integer.numberOfTrailingZeros(hook)];
+	}
+
 	/**
 	 * Called from LivingAttackEvent to trigger {@link SkillActive#onBeingAttacked} for each
 	 * currently active skill, potentially canceling the event. If the event is canceled, it
 	 * returns immediately without processing any remaining active skills.
 	 */
 	public void onBeingAttacked(LivingAttackEvent event) {
-		for (SkillActive skill : activeSkills) {
+		for (SkillActive skill : getHookListeners(SkillActive.HOOK_BEING_ATTACKED)) {
 			if (skill.isActive() && skill.onBeingAttacked(player, event.getSource())) {
 				event.setCanceled(true);
 				return;
 			}
 		}
-		if (itemSkill instanceof SkillActive && ((SkillActive) itemSkill).isActive()) {
-			((SkillActive) itemSkill).onBeingAttacked(player, event.getSource());
+	}
+
+	/**
+	 * Called from LivingHurtEvent to trigger {@link SkillActive#onImpact} for each currently
+	 * active skill, before any other modifiers are applied. Stops as soon as a skill sets the
+	 * damage to zero or cancels the event.
+	 */
+	public void onImpact(LivingHurtEvent event) {
+		for (SkillActive skill : getHookListeners(SkillActive.HOOK_IMPACT)) {
+			if (skill.isActive()) {
+				skill.onImpact(player, event);
+				if (event.isCanceled() || event.getAmount() <= 0.0F) {
+					return;
+				}
+			}
 		}
 	}
 
@@ -329,17 +456,27 @@ public class DSSPlayerInfo
 	 * well as calling {@link ICombo#onHurtTarget onHurtTarget} for the current ICombo.
 	 */
 	public void onPostImpact(LivingHurtEvent event) {
-		for (SkillActive skill : activeSkills) {
+		for (SkillActive skill : getHookListeners(SkillActive.HOOK_POST_IMPACT)) {
 			if (skill.isActive()) {
 				event.setAmount(skill.postImpact(player, event.getEntityLiving(), event.getAmount()));
 			}
 		}
-		if (itemSkill instanceof SkillActive && ((SkillActive) itemSkill).isActive()) {
-			event.setAmount(((SkillActive) itemSkill).postImpact(player, event.getEntityLiving(), event.getAmount()));
-		}
 		// combo gets updated last, after all damage modifications are completed
-		if (getComboSkill() != null) {
-			getComboSkill().onHurtTarget(player, event);
+		ICombo combo = getComboSkill();
+		if (combo != null) {
+			combo.onHurtTarget(player, event);
+			scheduleUpdate((SkillBase) combo);
+		}
+	}
+
+	/**
+	 * Called from Forge fall events to trigger {@link SkillActive#onFall} for each currently active skill
+	 */
+	public void onFall(float distance) {
+		for (SkillActive skill : getHookListeners(SkillActive.HOOK_FALL)) {
+			if (skill.isActive()) {
+				skill.onFall(player, distance);
+			}
 		}
 	}
 
@@ -351,28 +488,27 @@ public class DSSPlayerInfo
 	private void retrieveDummySwordSkill() {
 		boolean needsDummy = (getTrueSkillLevel(SkillBase.swordBasic.getId()) < 1 && dummySwordSkill == null);
 		if ((needsDummy || itemSkill == null) && persistentDummySkillSlot == -1) {
-			for (int i = 0; i < 9; ++i) {
-				ItemStack stack = player.inventory.getStackInSlot(i);
-				if (stack.getItem() instanceof ISkillProvider && ((ISkillProvider) stack.getItem()).getSkillId(stack) == SkillBase.mortalDraw.getId()) {
-					if (needsDummy && ((ISkillProvider) stack.getItem()).grantsBasicSwordSkill(stack)) {
-						dummySwordSkill = SkillBase.createLeveledSkill(SkillBase.swordBasic.getId(), (byte) 1);
-						persistentDummySkillSlot = i;
-					}
-					if (itemSkill == null) {
-						itemSkill = SkillBase.getSkillFromItem(stack, (ISkillProvider) stack.getItem());
-					}
-					if (!needsDummy || dummySwordSkill != null) {
-						break;
-					}
-				}
+			HotbarSkillIndex index = getHotbarIndex();
+			byte id = SkillBase.mortalDraw.getId();
+			if (needsDummy && index.getBasicSwordSlot(id) > -1) {
+				dummySwordSkill = SkillBase.createLeveledSkill(SkillBase.swordBasic.getId(), (byte) 1);
+				persistentDummySkillSlot = index.getBasicSwordSlot(id);
 			}
-			// prevent the for loop from running every single tick when nothing found
-			if (dummySwordSkill == null) {
-				persistentDummySkillSlot = -30;
+			if (itemSkill == null) {
+				itemSkill = index.createSkill(index.getSkillSlot(id));
 			}
 		}
 	}
 
+	/**
+	 * Returns the index of skill-providing items in the player's hot bar,
+	 * first refreshing any slots that have changed since it was last accessed
+	 */
+	public HotbarSkillIndex getHotbarIndex() {
+		hotbar.refresh(player.inventory);
+		return hotbar;
+	}
+
 	/**
 	 * Returns a SkillActive version of the player's actual skill instance,
 	 * or null if the player doesn't have the skill or it is not the correct type
@@ -391,15 +527,36 @@ public class DSSPlayerInfo
 	 * Returns the skill instance for actual use, whether from the player or an ISkillItem or null
 	 */
 	public SkillBase getPlayerSkill(byte id) {
+		// Only a query for the basic sword skill itself may pick up a dummy skill from the hot bar
+		if (id == SkillBase.swordBasic.getId() && (itemSkill == null || itemSkill.getId() != id) && player.getHeldItemMainhand().isEmpty()) {
+			retrieveDummySwordSkill();
+		}
+		boolean spinRequired = Config.isSpinAttackRequired();
+		if (itemSkill != resolvedItemSkill || dummySwordSkill != resolvedDummySkill
+				|| skills.getModCount() != resolvedSkillsModCount || spinRequired != resolvedSpinRequired)
+		{
+			for (int i = 0; i < resolvedSkills.length; ++i) {
+				resolvedSkills[i] = resolvePlayerSkill((byte) i);
+			}
+			resolvedItemSkill = itemSkill;
+			resolvedDummySkill = dummySwordSkill;
+			resolvedSkillsModCount = skills.getModCount();
+			resolvedSpinRequired = spinRequired;
+		}
+		return (id > -1 && id < resolvedSkills.length ? resolvedSkills[id] : resolvePlayerSkill(id));
+	}
+
+	/**
+	 * Determines which skill instance {@link #getPlayerSkill} should return; the result
+	 * depends only on the item skill, dummy sword skill and the player's own skills
+	 */
+	private SkillBase resolvePlayerSkill(byte id) {
 		if (itemSkill != null && itemSkill.getId() == id) {
 			return itemSkill;
 		} else if (id == SkillBase.spinAttack.getId() && itemSkill != null && itemSkill.getId() == SkillBase.superSpinAttack.getId()) {
 			SkillBase skill = getTruePlayerSkill(id);
 			return (skill == null && !Config.isSpinAttackRequired() ? itemSkill : skill);
 		} else if (id == SkillBase.swordBasic.getId()) {
-			if (player.getHeldItemMainhand().isEmpty()) {
-				retrieveDummySwordSkill();
-			}
 			return (dummySwordSkill == null ? getTruePlayerSkill(id) : dummySwordSkill);
 		} else {
 			return getTruePlayerSkill(id);
@@ -413,7 +570,7 @@ public class DSSPlayerInfo
 
 	/** Returns the player's actual skill instance or null if the player doesn't have the skill */
 	private SkillBase getTruePlayerSkill(byte id) {
-		return (skills.containsKey(id) ? skills.get(id) : null);
+		return skills.get(id);
 	}
 
 	/**
@@ -432,6 +589,33 @@ public class DSSPlayerInfo
 		return (ILockOnTarget) getPlayerSkill(SkillBase.swordBasic);
 	}
 
+	/**
+	 * Schedules the combo's pending updates to be sent to the client at the end of the tick; if a different
+	 * combo was already scheduled, its updates are sent now so they arrive before the new combo's
+	 */
+	public void queueComboSync(Combo combo) {
+		if (pendingCombo != null && pendingCombo != combo) {
+			pendingCombo.flushSync((EntityPlayerMP) player);
+		}
+		pendingCombo = combo;
+	}
+
+	/** Returns whether auto-targeting is enabled for this player, reading the client config on the client */
+	public boolean isAutoTargetEnabled() {
+		return (player.getEntityWorld().isRemote ? Config.autoTargetEnabled() : autoTarget);
+	}
+
+	/** Returns whether this player may target other players, reading the client config on the client */
+	public boolean canTargetPlayers() {
+		return (player.getEntityWorld().isRemote ? Config.canTargetPlayers() : targetPlayers);
+	}
+
+	/** Sets the player's targeting preferences as reported by the client */
+	public void setTargetingSettings(boolean autoTarget, boolean targetPlayers) {
+		this.autoTarget = autoTarget;
+		this.targetPlayers = targetPlayers;
+	}
+
 	/** Grants a skill with target level of current skill level plus one */
 	public boolean grantSkill(SkillBase skill) {
 		return grantSkill(skill.getId(), (byte)(getSkillLevel(skill) + 1));
@@ -441,22 +625,38 @@ public class DSSPlayerInfo
 	 * Grants skill to player if player meets the requirements; returns true if skill learned
 	 */
 	public boolean grantSkill(byte id, byte targetLevel) {
-		SkillBase skill = skills.containsKey(id) ? (SkillBase) skills.get(id) : SkillBase.getNewSkillInstance(id);
+		SkillBase skill = skills.contains(id) ? skills.get(id) : SkillBase.getNewSkillInstance(id);
 		if (skill.grantSkill(player, targetLevel)) {
-			skills.put(id, skill);
+			skills.put(skill);
+			updatingSkills.put(skill);
+			markSkillDirty(id);
 			return true;
 		} else {
 			return false;
 		}
 	}
 
+	/**
+	 * Schedules the player's skill to be updated each tick until it no longer
+	 * {@link SkillBase#hasPendingUpdate has a pending update}. Call this whenever
+	 * a skill starts a timer outside of activation or {@link #onKeyPressed}.
+	 * Skills provided by an ISkillItem are always checked, so are ignored here.
+	 */
+	public void scheduleUpdate(SkillBase skill) {
+		if (skill != null && skills.get(skill.getId()) == skill) {
+			updatingSkills.put(skill);
+		}
+	}
+
 	/**
 	 * Called after {@link SkillActive#onActivated} returns true to add the skill to the
 	 * list of currently active skills, as well as set the currently animating skill
 	 */
 	private void onSkillActivated(World world, SkillActive skill) {
+		scheduleUpdate(skill);
 		if (skill.isActive()) {
 			activeSkills.add(skill);
+			hookListenersChanged = true;
 			if (world.isRemote) {
 				setCurrentlyAnimatingSkill(skill);
 			}
@@ -502,18 +702,139 @@ public class DSSPlayerInfo
 	}
 
 	/**
-	 * Reads a SkillBase from stream and updates the local skills map; if the skill
-	 * loaded from NBT is level 0, that skill will be removed.
+	 * Flags the skill for synchronization with the client at the end of the current update
+	 */
+	private void markSkillDirty(byte id) {
+		if (!player.getEntityWorld().isRemote) {
+			dirtySkills.set(id);
+		}
+	}
+
+	/** Returns the version following the current {@link #syncVersion}, wrapping around to 0 */
+	private int nextSyncVersion() {
+		return (syncVersion + 1) & Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the interleaved id and level pairs of the given skills, or of all
+	 * skills the player has if ids is null; removed skills are sent as level 0
+	 */
+	private byte[] getSkillData(BitSet ids) {
+		BitSet set = ids;
+		if (set == null) {
+			set = new BitSet();
+			for (int id = skills.nextId(0); id > -1; id = skills.nextId(id + 1)) {
+				set.set(id);
+			}
+		}
+		byte[] data = new byte[set.cardinality() * 2];
+		int n = 0;
+		for (int id = set.nextSetBit(0); id > -1; id = set.nextSetBit(id + 1)) {
+			data[n++] = (byte) id;
+			data[n++] = skills.getLevel(id);
+		}
+		return data;
+	}
+
+	/**
+	 * Sends all skills changed since the last synchronization to the client as a single delta
+	 * @param validate True to send the delta even if nothing changed, so the client validates its skills
+	 */
+	public void syncDirtySkills(boolean validate) {
+		if (player instanceof EntityPlayerMP && (validate || !dirtySkills.isEmpty())) {
+			int base = syncVersion;
+			syncVersion = nextSyncVersion();
+			PacketDispatcher.sendTo(new SyncSkillPacket(base, syncVersion, getSkillData(dirtySkills), validate), (EntityPlayerMP) player);
+		}
+		dirtySkills.clear();
+	}
+
+	/**
+	 * Sends all of the player's skills to the client, replacing whatever it currently has
+	 * @param validate Whether the client should validate its skills afterward
+	 */
+	public void syncAllSkills(boolean validate) {
+		dirtySkills.clear();
+		if (player instanceof EntityPlayerMP) {
+			syncVersion = nextSyncVersion();
+			SyncPlayerInfoPacket packet = new SyncPlayerInfoPacket(syncVersion, getSkillData(null));
+			PacketDispatcher.sendTo((validate ? packet : packet.setReset()), (EntityPlayerMP) player);
+		}
+	}
+
+	/**
+	 * Applies a delta from {@link SyncSkillPacket} if it was built on top of the client's
+	 * current version, restoring the client's skills from the last synchronized data if
+	 * needed; otherwise requests a full synchronization from the server.
+	 * @param data Interleaved skill id and level pairs; a level of 0 removes the skill
+	 */
+	@SideOnly(Side.CLIENT)
+	public void applySkillDelta(int baseVersion, int version, byte[] data, boolean validate) {
+		if (syncVersion != baseVersion) {
+			if (clientCacheVersion == baseVersion && !awaitingFullSync) {
+				skills.clear();
+				updatingSkills.clear();
+				for (int id = 0; id < clientSkillCache.length; ++id) {
+					syncClientSideSkill((byte) id, clientSkillCache[id]);
+				}
+			} else {
+				if (!awaitingFullSync) {
+					awaitingFullSync = true;
+					PacketDispatcher.sendToServer(new RequestPlayerInfoPacket());
+				}
+				return;
+			}
+		}
+		for (int i = 0; i < data.length; i += 2) {
+			syncClientSideSkill(data[i], data[i + 1]);
+		}
+		onClientSkillsSynced(version, validate);
+	}
+
+	/**
+	 * Replaces all of the client's skills with the data from {@link SyncPlayerInfoPacket}
+	 * @param data Interleaved skill id and level pairs for every skill the player has
+	 */
+	@SideOnly(Side.CLIENT)
+	public void applySkillData(int version, byte[] data, boolean validate) {
+		skills.clear();
+		updatingSkills.clear();
+		for (int i = 0; i < data.length; i += 2) {
+			syncClientSideSkill(data[i], data[i + 1]);
+		}
+		awaitingFullSync = false;
+		onClientSkillsSynced(version, validate);
+	}
+
+	@SideOnly(Side.CLIENT)
+	private void onClientSkillsSynced(int version, boolean validate) {
+		syncVersion = version;
+		byte[] cache = new byte[SkillBase.getSkillTableSize()];
+		for (int id = skills.nextId(0); id > -1 && id < cache.length; id = skills.nextId(id + 1)) {
+			cache[id] = skills.getLevel(id);
+		}
+		clientSkillCache = cache;
+		clientCacheVersion = version;
+		if (validate) {
+			validateSkills();
+		}
+	}
+
+	/**
+	 * Updates the local skills map with a new instance of the skill at the given level;
+	 * if the level is 0, that skill will be removed.
 	 * Called client side only for synchronizing a skill with the server version.
 	 */
 	@SideOnly(Side.CLIENT)
-	public void syncClientSideSkill(byte id, NBTTagCompound compound) {
+	private void syncClientSideSkill(byte id, byte level) {
 		if (SkillBase.doesSkillExist(id)) {
-			SkillBase skill = SkillBase.getNewSkillInstance(id).loadFromNBT(compound);
-			if (skill.getLevel() > 0) {
-				skills.put(id, skill);
+			if (level > 0) {
+				SkillBase skill = SkillBase.createLeveledSkill(id, level);
+				skills.put(skill);
+				updatingSkills.put(skill);
 			} else {
 				skills.remove(id);
+				updatingSkills.remove(id);
 			}
 		}
 	}
@@ -546,17 +867,25 @@ public class DSSPlayerInfo
 		if (attackTime > 0) {
 			--attackTime;
 		}
-		if (itemSkill != null) {
+		if (itemSkill != null && itemSkill.hasPendingUpdate(player)) {
 			itemSkill.onUpdate(player);
 		}
-		if (dummySwordSkill != null) {
+		if (dummySwordSkill != null && dummySwordSkill.hasPendingUpdate(player)) {
 			dummySwordSkill.onUpdate(player);
 		}
-		if (persistentDummySkillSlot < -1) {
-			++persistentDummySkillSlot;
-		}
-		for (SkillBase skill : skills.values()) {
+		for (int id = updatingSkills.nextId(0); id > -1; id = updatingSkills.nextId(id + 1)) {
+			SkillBase skill = updatingSkills.get(id);
 			skill.onUpdate(player);
+			if (!skill.hasPendingUpdate(player)) {
+				updatingSkills.remove(id);
+			}
+		}
+		if (!player.getEntityWorld().isRemote) {
+			syncDirtySkills(false);
+			if (pendingCombo != null) {
+				pendingCombo.flushSync((EntityPlayerMP) player);
+				pendingCombo = null;
+			}
 		}
 		// must use iterators to avoid concurrent modification exceptions to list
 		Iterator<SkillActive> iterator = activeSkills.iterator();
@@ -564,6 +893,7 @@ public class DSSPlayerInfo
 			SkillActive skill = iterator.next();
 			if (!skill.isActive()) {
 				iterator.remove();
+				hookListenersChanged = true;
 			}
 		}
 	}
@@ -578,18 +908,10 @@ public class DSSPlayerInfo
 		{
 			// do not replace Mortal Draw until it is no longer active
 			if (persistentDummySkillSlot > -1 && stack.isEmpty()) {
-				ItemStack dummyStack = player.inventory.getStackInSlot(persistentDummySkillSlot);
-				if (!(dummyStack.getItem() instanceof ISkillProvider) || !SkillBase.getSkillFromItem(dummyStack, (ISkillProvider) dummyStack.getItem()).equals(itemSkill)) {
-					boolean wasFound = false;
-					for (int i = 0; i < 9; ++i) {
-						ItemStack newStack = player.inventory.getStackInSlot(i);
-						if (newStack.getItem() instanceof ISkillProvider && SkillBase.getSkillFromItem(newStack, (ISkillProvider) newStack.getItem()).equals(itemSkill)) {
-							persistentDummySkillSlot = i;
-							wasFound = true;
-							break;
-						}
-					}
-					if (!wasFound) {
+				HotbarSkillIndex index = getHotbarIndex();
+				if (!index.providesSkill(persistentDummySkillSlot, itemSkill)) {
+					persistentDummySkillSlot = index.findSlot(itemSkill);
+					if (persistentDummySkillSlot < 0) {
 						itemSkill = null;
 						dummySwordSkill = null;
 						persistentDummySkillSlot = -1;
@@ -642,10 +964,20 @@ public class DSSPlayerInfo
 		}
 	}
 
-	/** Returns ExtendedPlayer properties for player */
+	/**
+	 * Returns ExtendedPlayer properties for player; instances are registered when the
+	 * capability is attached, so this is normally a single identity map lookup
+	 */
 	public static final DSSPlayerInfo get(EntityPlayer player) {
-		IPlayerInfo info = player.getCapability(IPlayerInfo.CapabilityPlayerInfo.PLAYER_INFO, null);
-		return info == null ? null : info.get();
+		DSSPlayerInfo info = INSTANCES.get(player);
+		if (info == null) {
+			IPlayerInfo cap = player.getCapability(IPlayerInfo.CapabilityPlayerInfo.PLAYER_INFO, null);
+			info = (cap == null ? null : cap.get());
+			if (info != null) {
+				INSTANCES.put(player, info);
+			}
+		}
+		return info;
 	}
 
 	/**
@@ -662,54 +994,85 @@ public class DSSPlayerInfo
 	 */
 	public void onJoinWorld() {
 		validateSkills();
-		if (player instanceof EntityPlayerMP) {
-			PacketDispatcher.sendTo(new SyncPlayerInfoPacket(this), (EntityPlayerMP) player);
-		}
+		// the client player may have been recreated; it will request everything if it can't apply the delta
+		syncDirtySkills(true);
 	}
 
 	/**
-	 * Copies given data to this one
+	 * Copies given data to this one; each skill is a new instance at the same level,
+	 * exactly as if the data had been saved and loaded again, so no transient state
+	 * such as active timers carries over. Skills are validated later, upon joining the world.
 	 */
 	public void copy(DSSPlayerInfo info) {
-		NBTTagCompound compound = new NBTTagCompound();
-		info.writeNBT(compound);
-		this.readNBT(compound);
+		skills.clear();
+		updatingSkills.clear();
+		for (int id = info.skills.nextId(0); id > -1; id = info.skills.nextId(id + 1)) {
+			SkillBase skill = SkillBase.createLeveledSkill(id, info.skills.getLevel(id));
+			if (skill != null) {
+				skills.put(skill);
+				updatingSkills.put(skill);
+			}
+		}
+		this.receivedGear = info.receivedGear;
+		this.autoTarget = info.autoTarget;
+		this.targetPlayers = info.targetPlayers;
+		this.syncVersion = info.syncVersion;
+		this.dirtySkills.or(info.dirtySkills);
 	}
 
 	/**
 	 * Validates each skill upon player respawn, ensuring all bonuses are correct
 	 */
 	public final void validateSkills() {
-		for (SkillBase skill : skills.values()) {
-			skill.validateSkill(player);
+		for (int id = skills.nextId(0); id > -1; id = skills.nextId(id + 1)) {
+			skills.get(id).validateSkill(player);
 		}
 	}
 
 	/**
-	 * Call from {@link IStorage#writeNBT} 
+	 * Call from {@link IStorage#writeNBT}; when the {@link SkillDataWriter} is running, the
+	 * data is handed off to it and only a placeholder is returned
 	 */
-	public NBTTagCompound writeNBT(NBTTagCompound compound) {
-		NBTTagList taglist = new NBTTagList();
-		for (SkillBase skill : skills.values()) {
-			NBTTagCompound skillTag = new NBTTagCompound();
-			skill.writeToNBT(skillTag);
-			taglist.appendTag(skillTag);
+	public NBTTagCompound saveNBT() {
+		NBTTagCompound compound = new NBTTagCompound();
+		if (SkillDataWriter.isRunning() && !player.getEntityWorld().isRemote) {
+			SkillDataWriter.save(player.getUniqueID(), new SkillDataWriter.Snapshot(getSkillData(null), receivedGear));
+			compound.setBoolean(SkillDataWriter.ASYNC_TAG, true);
+			return compound;
 		}
-		compound.setTag("DynamicSwordSkills", taglist);
+		return writeNBT(compound);
+	}
+
+	/**
+	 * Call from {@link IStorage#readNBT}; loads the data from the {@link SkillDataWriter}
+	 * if the compound is only a placeholder
+	 */
+	public void loadNBT(NBTTagCompound compound) {
+		readNBT(compound.getBoolean(SkillDataWriter.ASYNC_TAG) ? SkillDataWriter.load(player.getUniqueID()) : compound);
+	}
+
+	/**
+	 * Writes all of the player's saved data to the compound
+	 */
+	public NBTTagCompound writeNBT(NBTTagCompound compound) {
+		SkillDataCodec.write(compound, getSkillData(null), Config.useCompactSkillData());
 		compound.setBoolean("receivedGear", receivedGear);
 		return compound;
 	}
 
 	/**
-	 * Call from {@link IStorage#readNBT} 
+	 * Replaces all of the player's saved data with the data from the compound
 	 */
 	public void readNBT(NBTTagCompound compound) {
 		skills.clear(); // allows skills to reset on client without re-adding all the skills
-		NBTTagList taglist = compound.getTagList("DynamicSwordSkills", Constants.NBT.TAG_COMPOUND);
-		for (int i = 0; i < taglist.tagCount(); ++i) {
-			NBTTagCompound skill = taglist.getCompoundTagAt(i);
-			byte id = skill.getByte("id");
-			skills.put(id, SkillBase.getSkill(id).loadFromNBT(skill));
+		updatingSkills.clear();
+		byte[] data = SkillDataCodec.read(compound);
+		for (int i = 0; i < data.length; i += 2) {
+			SkillBase loaded = SkillBase.createLeveledSkill(data[i], data[i + 1]);
+			if (loaded != null) {
+				skills.put(loaded);
+				updatingSkills.put(loaded);
+			}
 		}
 		receivedGear = compound.getBoolean("receivedGear");
 	}
@@ -18,12 +18,14 @@
 package dynamicswordskills.entity;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 import org.apache.commons.lang3.ArrayUtils;
 
 import dynamicswordskills.ref.ModSounds;
 import dynamicswordskills.util.DamageUtils;
+import dynamicswordskills.util.EntitySpatialIndex;
 import dynamicswordskills.util.PlayerUtils;
 import dynamicswordskills.util.TargetUtils;
 import net.minecraft.block.Block;
@@ -48,6 +50,9 @@ public class EntityLeapingBlow extends EntityThrowable
 	/** Keeps track of entities already affected so they don't get attacked twice */
 	private List<Integer> affectedEntities = new ArrayList<Integer>(); 
 
+	/** Reusable mask of the targets found each tick that are in front of this entity */
+	private final BitSet inFront = new BitSet();
+
 	/** Base damage should be set from player's Leaping Blow skill */
 	private float damage = 2.0F;
 
@@ -127,9 +132,11 @@ public class EntityLeapingBlow extends EntityThrowable
 			setDead();
 		}
 		if (!getEntityWorld().isRemote) {
-			List<EntityLivingBase> targets = getEntityWorld().getEntitiesWithinAABB(EntityLivingBase.class, getAoE());
-			for (EntityLivingBase target : targets) {
-				if (!affectedEntities.contains(target.getEntityId()) && target != getThrower() && !TargetUtils.isTargetInFrontOf(this, target, 30F)) {
+			List<EntityLivingBase> targets = EntitySpatialIndex.getEntitiesWithinAABB(getEntityWorld(), getAoE());
+			TargetUtils.getTargetsInFrontOf(this, targets, 30F, inFront);
+			for (int i = 0; i < targets.size(); ++i) {
+				EntityLivingBase target = targets.get(i);
+				if (!affectedEntities.contains(target.getEntityId()) && target != getThrower() && !inFront.get(i)) {
 					affectedEntities.add(target.getEntityId());
 					float d = damage;
 					if (getThrower() != null) {
@@ -0,0 +1,195 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package dynamicswordskills.entity;
+
+import java.util.Arrays;
+
+import dynamicswordskills.api.ISkillProvider;
+import dynamicswordskills.skills.SkillBase;
+import dynamicswordskills.util.PlayerUtils;
+import net.minecraft.entity.player.InventoryPlayer;
+import net.minecraft.item.ItemStack;
+
+/**
+ * 
+ * Per-player index of the {@link ISkillProvider} items and swords in the hot bar.
+ * 
+ * Each slot is only re-examined when the stack in it is replaced or the inventory reports
+ * a change, so skill lookups by id are a single array read instead of a hot bar scan.
+ * 
+ * Note that changes made directly to a stack's NBT without marking the inventory dirty
+ * are not detected until the stack itself is replaced.
+ *
+ */
+public class HotbarSkillIndex
+{
+	/** Number of hot bar slots indexed */
+	public static final int SIZE = InventoryPlayer.getHotbarSize();
+
+	/** Stack last seen in each slot, compared by identity */
+	private final ItemStack[] stacks = new ItemStack[SIZE];
+
+	/** Leveled skill provided by the stack in each slot, or null; never given out directly */
+	private final SkillBase[] skills = new SkillBase[SIZE];
+
+	/** Whether the stack in each slot grants the basic sword skill */
+	private final boolean[] grantsBasic = new boolean[SIZE];
+
+	/** Whether the stack in each slot is a sword */
+	private final boolean[] isSword = new boolean[SIZE];
+
+	/** First slot providing each skill id, or -1 */
+	private final int[] firstSlot;
+
+	/** First slot providing each skill id that also grants the basic sword skill, or -1 */
+	private final int[] firstBasicSlot;
+
+	/** First slot containing a sword, or -1 */
+	private int firstSwordSlot = -1;
+
+	/** Value of {@link InventoryPlayer#getTimesChanged()} at the last refresh */
+	private int timesChanged = -1;
+
+	/** Incremented each time the index contents change */
+	private int version;
+
+	public HotbarSkillIndex() {
+		this.firstSlot = new int[SkillBase.getSkillTableSize()];
+		this.firstBasicSlot = new int[SkillBase.getSkillTableSize()];
+		Arrays.fill(firstSlot, -1);
+		Arrays.fill(firstBasicSlot, -1);
+		Arrays.fill(stacks, ItemStack.EMPTY);
+	}
+
+	/**
+	 * Re-examines any slots whose stack has been replaced since the last call
+	 * @return True if the index changed
+	 */
+	public boolean refresh(InventoryPlayer inventory) {
+		boolean forced = (inventory.getTimesChanged() != timesChanged);
+		timesChanged = inventory.getTimesChanged();
+		boolean changed = false;
+		for (int i = 0; i < SIZE; ++i) {
+			ItemStack stack = inventory.getStackInSlot(i);
+			if (forced || stack != stacks[i]) {
+				changed |= update(i, stack);
+			}
+		}
+		if (changed) {
+			rebuildLookups();
+			++version;
+		}
+		return changed;
+	}
+
+	/**
+	 * Updates the cached data for a single slot
+	 * @return True if the cached data changed
+	 */
+	private boolean update(int slot, ItemStack stack) {
+		SkillBase skill = null;
+		boolean basic = false;
+		if (stack.getItem() instanceof ISkillProvider) {
+			ISkillProvider item = (ISkillProvider) stack.getItem();
+			skill = SkillBase.getSkillFromItem(stack, item);
+			basic = (skill != null && item.grantsBasicSwordSkill(stack));
+		}
+		boolean sword = PlayerUtils.isSword(stack);
+		boolean changed = (stack != stacks[slot] || basic != grantsBasic[slot] || sword != isSword[slot]
+				|| (skill == null ? skills[slot] != null : !skill.equals(skills[slot])));
+		stacks[slot] = stack;
+		skills[slot] = skill;
+		grantsBasic[slot] = basic;
+		isSword[slot] = sword;
+		return changed;
+	}
+
+	private void rebuildLookups() {
+		Arrays.fill(firstSlot, -1);
+		Arrays.fill(firstBasicSlot, -1);
+		firstSwordSlot = -1;
+		for (int i = SIZE - 1; i > -1; --i) {
+			if (skills[i] != null) {
+				int id = skills[i].getId();
+				firstSlot[id] = i;
+				if (grantsBasic[i]) {
+					firstBasicSlot[id] = i;
+				}
+			}
+			if (isSword[i]) {
+				firstSwordSlot = i;
+			}
+		}
+	}
+
+	/** Returns a counter that changes each time the contents of the index change */
+	public int getVersion() {
+		return version;
+	}
+
+	/** Returns the first slot with an item providing the skill, or -1 */
+	public int getSkillSlot(int id) {
+		return (id > -1 && id < firstSlot.length ? firstSlot[id] : -1);
+	}
+
+	/** Returns the first slot with an item providing the skill that also grants the basic sword skill, or -1 */
+	public int getBasicSwordSlot(int id) {
+		return (id > -1 && id < firstBasicSlot.length ? firstBasicSlot[id] : -1);
+	}
+
+	/**
+	 * Returns the first slot with either a sword or an item providing the skill, or -1
+	 * @see PlayerUtils#isSwordOrProvider
+	 */
+	public int getSwordOrProviderSlot(int id) {
+		int slot = getSkillSlot(id);
+		return (slot < 0 || (firstSwordSlot > -1 && firstSwordSlot < slot) ? firstSwordSlot : slot);
+	}
+
+	/**
+	 * Returns the first slot providing a skill {@link SkillBase#equals equal} to the one given, or -1
+	 */
+	public int findSlot(SkillBase skill) {
+		for (int i = getSkillSlot(skill.getId()); i > -1 && i < SIZE; ++i) {
+			if (skill.equals(skills[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Returns true if the item in the slot provides a skill {@link SkillBase#equals equal} to the one given */
+	public boolean providesSkill(int slot, SkillBase skill) {
+		return slot > -1 && slot < SIZE && skill.equals(skills[slot]);
+	}
+
+	/** Returns true if the item in the slot provides a skill and grants the basic sword skill */
+	public boolean grantsBasicSwordSkill(int slot) {
+		return slot > -1 && slot < SIZE && grantsBasic[slot];
+	}
+
+	/**
+	 * Returns a new leveled instance of the skill provided by the item in the slot, or null
+	 * @see SkillBase#getSkillFromItem
+	 */
+	public SkillBase createSkill(int slot) {
+		SkillBase skill = (slot > -1 && slot < SIZE ? skills[slot] : null);
+		return (skill == null ? null : SkillBase.createLeveledSkill(skill.getId(), skill.getLevel()));
+	}
+}
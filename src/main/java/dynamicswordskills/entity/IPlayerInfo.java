@@ -27,7 +27,6 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTBase;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.MinecraftForge;
@@ -76,12 +75,12 @@ public interface IPlayerInfo {
 			CapabilityManager.INSTANCE.register(IPlayerInfo.class, new Capability.IStorage<IPlayerInfo>() {
 				@Override
 				public NBTBase writeNBT(Capability<IPlayerInfo> capability, IPlayerInfo instance, EnumFacing side) {
-					return instance.get().writeNBT(new NBTTagCompound());
+					return instance.get().saveNBT();
 				}
 
 				@Override
 				public void readNBT(Capability<IPlayerInfo> capability, IPlayerInfo instance, EnumFacing side, NBTBase nbt) {
-					instance.get().readNBT((NBTTagCompound) nbt);
+					instance.get().loadNBT((NBTTagCompound) nbt);
 				}
 			}, new Callable<IPlayerInfo>() {
 				public IPlayerInfo call() throws Exception {
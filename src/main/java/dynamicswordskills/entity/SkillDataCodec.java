@@ -0,0 +1,98 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package dynamicswordskills.entity;
+
+import dynamicswordskills.DynamicSwordSkills;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
+
+/**
+ * 
+ * Reads and writes a player's skill levels as NBT.
+ * 
+ * The compact format is a single byte array tag holding the format version followed by
+ * one id and level byte pair per skill; the legacy format is a list with one compound per
+ * skill. Either format is read, so switching between them never loses any data.
+ * 
+ * Skill levels are passed around as interleaved id and level byte pairs, the same as
+ * the skill synchronization packets.
+ *
+ */
+public class SkillDataCodec
+{
+	/** Tag used by the compact format */
+	public static final String COMPACT_TAG = "DSSSkillData";
+
+	/** Tag used by the legacy format */
+	public static final String LEGACY_TAG = "DynamicSwordSkills";
+
+	/** Current version of the compact format, stored as its first byte */
+	public static final byte FORMAT_VERSION = 1;
+
+	private SkillDataCodec() {}
+
+	/**
+	 * Writes the skill levels to the compound
+	 * @param data    Interleaved skill id and level pairs
+	 * @param compact True to use the compact format, false for the legacy format
+	 */
+	public static void write(NBTTagCompound compound, byte[] data, boolean compact) {
+		if (compact) {
+			byte[] packed = new byte[data.length + 1];
+			packed[0] = FORMAT_VERSION;
+			System.arraycopy(data, 0, packed, 1, data.length);
+			compound.setByteArray(COMPACT_TAG, packed);
+		} else {
+			NBTTagList taglist = new NBTTagList();
+			for (int i = 0; i < data.length; i += 2) {
+				NBTTagCompound skillTag = new NBTTagCompound();
+				skillTag.setByte("id", data[i]);
+				skillTag.setByte("level", data[i + 1]);
+				taglist.appendTag(skillTag);
+			}
+			compound.setTag(LEGACY_TAG, taglist);
+		}
+	}
+
+	/**
+	 * Reads the skill levels from the compound in whichever format it was written
+	 * @return Interleaved skill id and level pairs, empty if the compound has no skill data
+	 */
+	public static byte[] read(NBTTagCompound compound) {
+		if (compound.hasKey(COMPACT_TAG, Constants.NBT.TAG_BYTE_ARRAY)) {
+			byte[] packed = compound.getByteArray(COMPACT_TAG);
+			if (packed.length > 0 && packed[0] == FORMAT_VERSION) {
+				byte[] data = new byte[(packed.length - 1) & ~1];
+				System.arraycopy(packed, 1, data, 0, data.length);
+				return data;
+			}
+			DynamicSwordSkills.logger.error("Unable to read skill data: unknown format version " + (packed.length > 0 ? packed[0] : "(empty)"));
+			return new byte[0];
+		}
+		NBTTagList taglist = compound.getTagList(LEGACY_TAG, Constants.NBT.TAG_COMPOUND);
+		byte[] data = new byte[taglist.tagCount() * 2];
+		for (int i = 0; i < taglist.tagCount(); ++i) {
+			NBTTagCompound skillTag = taglist.getCompoundTagAt(i);
+			data[i * 2] = skillTag.getByte("id");
+			data[i * 2 + 1] = skillTag.getByte("level");
+		}
+		return data;
+	}
+}
@@ -0,0 +1,250 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package dynamicswordskills.entity;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import dynamicswordskills.DynamicSwordSkills;
+import dynamicswordskills.ref.Config;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+/**
+ * 
+ * Saves player skill data to a separate file per player on a background thread.
+ * 
+ * The main thread only takes an immutable {@link Snapshot} of the data; encoding and
+ * writing happen on a single writer thread. Only the latest snapshot for each player
+ * is kept, so a player whose data is saved again before the previous write started
+ * is written once, and a snapshot that is still pending is returned when the player's
+ * data is loaded, so loading always sees the most recent save.
+ * 
+ * The capability data saved with the player only contains a placeholder while the
+ * writer is in use, but it is read the same way whether or not the writer is enabled.
+ *
+ */
+public class SkillDataWriter
+{
+	/** Placeholder tag set in the capability data when the data was saved by the writer */
+	public static final String ASYNC_TAG = "DSSAsyncData";
+
+	/** Maximum number of seconds to wait for pending writes when the server stops */
+	private static final int SHUTDOWN_TIMEOUT = 30;
+
+	/** Latest snapshot waiting to be written for each player */
+	private static final Map<UUID, Snapshot> pending = new ConcurrentHashMap<UUID, Snapshot>();
+
+	/** Directory containing the player data files, or null if no server is running */
+	private static File directory;
+
+	/** Single writer thread, or null if asynchronous saving is disabled */
+	private static ExecutorService executor;
+
+	private SkillDataWriter() {}
+
+	/**
+	 * Immutable copy of the saved player data
+	 */
+	public static final class Snapshot
+	{
+		/** Interleaved skill id and level pairs */
+		private final byte[] data;
+
+		private final boolean receivedGear;
+
+		/**
+		 * @param data Interleaved skill id and level pairs; must not be modified afterward
+		 */
+		public Snapshot(byte[] data, boolean receivedGear) {
+			this.data = data;
+			this.receivedGear = receivedGear;
+		}
+
+		/** Encodes the snapshot the same way as {@link DSSPlayerInfo#writeNBT} */
+		public NBTTagCompound toNBT() {
+			NBTTagCompound compound = new NBTTagCompound();
+			SkillDataCodec.write(compound, data, Config.useCompactSkillData());
+			compound.setBoolean("receivedGear", receivedGear);
+			return compound;
+		}
+	}
+
+	/**
+	 * Call when the server starts, after the worlds have loaded
+	 * @param saveRoot The world save directory
+	 */
+	public static void start(File saveRoot) {
+		directory = new File(saveRoot, "dynamicswordskills");
+		if (Config.useAsyncSkillSaving()) {
+			executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "DSS Skill Data Writer");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Call when the server has stopped to write all pending snapshots before returning
+	 */
+	public static void stop() {
+		if (executor != null) {
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+					DynamicSwordSkills.logger.warn("Timed out waiting for skill data writer; writing remaining data on the main thread");
+					executor.shutdownNow();
+				}
+			} catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+			executor = null;
+		}
+		// anything still pending if the writer timed out or never ran; each write holds the
+		// writer's lock, so this waits for a write still running on the writer thread
+		for (UUID id : pending.keySet()) {
+			write(id);
+		}
+		synchronized (SkillDataWriter.class) {
+			directory = null;
+		}
+	}
+
+	/**
+	 * Returns true if player data should be saved with {@link #save}
+	 */
+	public static boolean isRunning() {
+		return executor != null;
+	}
+
+	/**
+	 * Queues the snapshot to be written on the writer thread, replacing any
+	 * snapshot for the same player that has not yet been written
+	 */
+	public static void save(final UUID id, Snapshot snapshot) {
+		if (pending.put(id, snapshot) == null) {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					write(id);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns the most recently saved data for the player, as written by {@link DSSPlayerInfo#writeNBT}
+	 */
+	public static NBTTagCompound load(UUID id) {
+		Snapshot snapshot = pending.get(id);
+		if (snapshot != null) {
+			return snapshot.toNBT();
+		}
+		if (directory == null) {
+			DynamicSwordSkills.logger.warn("Missing skill data file for player " + id);
+			return new NBTTagCompound();
+		}
+		NBTTagCompound compound = read(getFile(id), id);
+		if (compound == null) {
+			// a write may have been interrupted before the new file replaced the old one
+			compound = read(getTempFile(id), id);
+			if (compound != null) {
+				DynamicSwordSkills.logger.warn("Recovered skill data for player " + id + " from an unfinished write");
+			} else {
+				DynamicSwordSkills.logger.warn("Missing skill data file for player " + id);
+			}
+		}
+		return (compound == null ? new NBTTagCompound() : compound);
+	}
+
+	/**
+	 * Returns the data read from the file, or null if it does not exist or could not be read
+	 */
+	private static NBTTagCompound read(File file, UUID id) {
+		if (!file.exists()) {
+			return null;
+		}
+		try {
+			return CompressedStreamTools.readCompressed(new FileInputStream(file));
+		} catch (IOException e) {
+			DynamicSwordSkills.logger.error("Failed to read skill data for player " + id + " from " + file.getName(), e);
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the latest snapshot for the player, repeating if a newer one arrived in the meantime.
+	 * Only one write runs at a time, so the writer thread and {@link #stop} never share a file.
+	 */
+	private static synchronized void write(UUID id) {
+		Snapshot snapshot = pending.get(id);
+		while (snapshot != null) {
+			File temp = getTempFile(id);
+			try {
+				directory.mkdirs();
+				CompressedStreamTools.writeCompressed(snapshot.toNBT(), new FileOutputStream(temp));
+				replace(temp, getFile(id));
+			} catch (IOException e) {
+				DynamicSwordSkills.logger.error("Failed to write skill data for player " + id, e);
+			}
+			if (pending.remove(id, snapshot)) {
+				break;
+			}
+			snapshot = pending.get(id);
+		}
+	}
+
+	/**
+	 * Replaces the target with the source file, atomically where the file system allows it,
+	 * so the player's previous data remains intact until the new data is in place
+	 */
+	private static void replace(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static File getFile(UUID id) {
+		return new File(directory, id + ".dat");
+	}
+
+	/** File each snapshot is written to before it replaces the player's data file */
+	private static File getTempFile(UUID id) {
+		return new File(directory, id + ".dat.tmp");
+	}
+}
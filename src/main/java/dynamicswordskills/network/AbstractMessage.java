@@ -21,6 +21,7 @@ import java.io.IOException;
 
 import dynamicswordskills.DynamicSwordSkills;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.IThreadListener;
@@ -39,6 +40,14 @@ import net.minecraftforge.fml.relauncher.Side;
  */
 public abstract class AbstractMessage<T extends AbstractMessage<T>> implements IMessage, IMessageHandler <T, IMessage>
 {
+	/** Per-thread buffer for messages that must encode their data when created, see {@link #getScratchBuffer()} */
+	private static final ThreadLocal<PacketBuffer> SCRATCH = new ThreadLocal<PacketBuffer>() {
+		@Override
+		protected PacketBuffer initialValue() {
+			return new PacketBuffer(Unpooled.buffer());
+		}
+	};
+
 	/**
 	 * Some PacketBuffer methods throw IOException - default handling propagates the exception.
 	 * If an IOException is expected but should not be fatal, handle it within this method.
@@ -75,22 +84,54 @@ public abstract class AbstractMessage<T extends AbstractMessage<T>> implements I
 		return true;
 	}
 
+	/**
+	 * Returns this thread's scratch buffer, emptied and ready for writing. Messages whose data
+	 * may change before they are encoded can write it here and copy out only the bytes written,
+	 * rather than allocating a new buffer each time. The buffer is reused by the next call on
+	 * the same thread, so it must not be kept.
+	 */
+	protected static PacketBuffer getScratchBuffer() {
+		PacketBuffer buffer = SCRATCH.get();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns the buffer as a PacketBuffer, wrapping it only if it is not one already;
+	 * PacketBuffer's underlying buffer cannot be changed, so buffers supplied by the
+	 * network channel are still wrapped, while those passed on by {@link BundlePacket}
+	 * and {@link MessageBundler} are used as is.
+	 */
+	private static PacketBuffer asPacketBuffer(ByteBuf buffer) {
+		return (buffer instanceof PacketBuffer ? (PacketBuffer) buffer : new PacketBuffer(buffer));
+	}
+
 	@Override
 	public void fromBytes(ByteBuf buffer) {
+		boolean stats = NetworkStats.isEnabled();
+		int size = buffer.readableBytes();
+		long start = (stats ? System.nanoTime() : 0L);
 		try {
-			read(new PacketBuffer(buffer));
+			read(asPacketBuffer(buffer));
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
+		if (stats) {
+			NetworkStats.INSTANCE.onDecoded(getClass(), size, System.nanoTime() - start);
+		}
 	}
 
 	@Override
 	public void toBytes(ByteBuf buffer) {
+		int start = buffer.writerIndex();
 		try {
-			write(new PacketBuffer(buffer));
+			write(asPacketBuffer(buffer));
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
+		if (NetworkStats.isEnabled()) {
+			NetworkStats.INSTANCE.onEncoded(getClass(), buffer.writerIndex() - start);
+		}
 	}
 
 	@Override
@@ -105,14 +146,29 @@ public abstract class AbstractMessage<T extends AbstractMessage<T>> implements I
 		return null;
 	}
 
+	/**
+	 * Processes a message that arrived inside a {@link BundlePacket}, which has
+	 * already been moved to the main thread if required
+	 */
+	final void processBundled(EntityPlayer player, Side side) {
+		if (!isValidOnSide(side)) {
+			throw new RuntimeException("Invalid side " + side.name() + " for " + getClass().getSimpleName());
+		}
+		process(player, side);
+	}
+
 	/**
 	 * Ensures that the message is being handled on the main thread
 	 */
 	private static final <T extends AbstractMessage<T>> void checkThreadAndEnqueue(final AbstractMessage<T> msg, final MessageContext ctx) {
 		IThreadListener thread = DynamicSwordSkills.proxy.getThreadFromContext(ctx);
 		if (!thread.isCallingFromMinecraftThread()) {
+			final long queued = (NetworkStats.isEnabled() ? System.nanoTime() : 0L);
 			thread.addScheduledTask(new Runnable() {
 				public void run() {
+					if (queued != 0L) {
+						NetworkStats.INSTANCE.onDequeued(msg.getClass(), System.nanoTime() - queued);
+					}
 					msg.process(DynamicSwordSkills.proxy.getPlayerEntity(ctx), ctx.side);
 				}
 			});
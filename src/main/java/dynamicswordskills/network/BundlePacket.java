@@ -0,0 +1,84 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.relauncher.Side;
+
+/**
+ * 
+ * Carries every message queued for one destination during a tick, as built by {@link MessageBundler}.
+ * 
+ * Each entry is written as the message's discriminator, its encoded length, and its payload;
+ * the receiving side decodes the entries in order and hands each one to its own
+ * {@link AbstractMessage#process process} method on the main thread.
+ *
+ */
+public class BundlePacket extends AbstractMessage<BundlePacket>
+{
+	/** Number of messages in the bundle */
+	private int count;
+
+	/** Encoded entries, only used when sending */
+	private byte[] data;
+
+	/** Decoded messages, only used when receiving */
+	private List<AbstractMessage<?>> messages;
+
+	public BundlePacket() {}
+
+	BundlePacket(int count, byte[] data) {
+		this.count = count;
+		this.data = data;
+	}
+
+	@Override
+	protected void read(PacketBuffer buffer) throws IOException {
+		count = buffer.readVarInt();
+		messages = new ArrayList<AbstractMessage<?>>(count);
+		for (int i = 0; i < count; ++i) {
+			AbstractMessage<?> message = PacketDispatcher.createMessage(buffer.readUnsignedByte());
+			int end = buffer.readVarInt() + buffer.readerIndex();
+			// Limit the readable bytes to this entry instead of reading it from a new slice
+			int writerIndex = buffer.writerIndex();
+			buffer.writerIndex(end);
+			message.fromBytes(buffer);
+			buffer.readerIndex(end);
+			buffer.writerIndex(writerIndex);
+			messages.add(message);
+		}
+	}
+
+	@Override
+	protected void write(PacketBuffer buffer) throws IOException {
+		buffer.writeVarInt(count);
+		buffer.writeBytes(data);
+	}
+
+	@Override
+	protected void process(EntityPlayer player, Side side) {
+		for (AbstractMessage<?> message : messages) {
+			message.processBundled(player, side);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ClientTickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.simpleimpl.SimpleNetworkWrapper;
+
+/**
+ * 
+ * Queues messages sent through {@link PacketDispatcher} while packet bundling is enabled
+ * and sends everything queued for each destination as a single {@link BundlePacket} at
+ * the end of the tick, in the order the messages were sent.
+ * 
+ * Messages are encoded as soon as they are queued, so later changes to any data they
+ * refer to do not affect what is sent. Messages addressed to several players, e.g.
+ * via {@link #queueToAllAround}, are encoded once and copied into each player's queue.
+ *
+ */
+public class MessageBundler
+{
+	/** Bundles are sent early rather than grow past this size; stays below the client to server payload limit */
+	private static final int MAX_BUNDLE_SIZE = 32000;
+
+	private final SimpleNetworkWrapper dispatcher;
+
+	/** Queues for messages to each player's client, in the order the players were first sent something */
+	private final Map<EntityPlayerMP, Bundle> clientBound = new LinkedHashMap<EntityPlayerMP, Bundle>();
+
+	/** Queue for messages to the server */
+	private final Bundle serverBound = new Bundle();
+
+	/** Scratch buffers for encoding a single message's payload and its complete entry */
+	private final PacketBuffer payload = new PacketBuffer(Unpooled.buffer());
+	private final PacketBuffer scratch = new PacketBuffer(Unpooled.buffer());
+
+	MessageBundler(SimpleNetworkWrapper dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
+	/**
+	 * Queues the message to be sent to the player at the end of the server tick
+	 */
+	public synchronized void queueTo(AbstractMessage<?> message, EntityPlayerMP player) {
+		ByteBuf entry = encode(message);
+		append(getBundle(player), entry, player);
+	}
+
+	/**
+	 * Queues the message to be sent to every player at the end of the server tick
+	 */
+	public synchronized void queueToAll(AbstractMessage<?> message) {
+		MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+		if (server == null) {
+			return;
+		}
+		ByteBuf entry = encode(message);
+		for (EntityPlayerMP player : server.getPlayerList().getPlayers()) {
+			append(getBundle(player), entry, player);
+		}
+	}
+
+	/**
+	 * Queues the message to be sent to every player within range of the point at the end of the server tick;
+	 * uses the same range check as {@link SimpleNetworkWrapper#sendToAllAround}
+	 */
+	public synchronized void queueToAllAround(AbstractMessage<?> message, NetworkRegistry.TargetPoint point) {
+		MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+		if (server == null) {
+			return;
+		}
+		ByteBuf entry = null;
+		double rangeSq = point.range * point.range;
+		for (EntityPlayerMP player : server.getPlayerList().getPlayers()) {
+			if (player.dimension != point.dimension) {
+				continue;
+			}
+			double dx = point.x - player.posX;
+			double dy = point.y - player.posY;
+			double dz = point.z - player.posZ;
+			if (dx * dx + dy * dy + dz * dz < rangeSq) {
+				if (entry == null) {
+					entry = encode(message);
+				}
+				append(getBundle(player), entry, player);
+			}
+		}
+	}
+
+	/**
+	 * Queues the message to be sent to every player in the dimension at the end of the server tick
+	 */
+	public synchronized void queueToDimension(AbstractMessage<?> message, int dimensionId) {
+		MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+		if (server == null) {
+			return;
+		}
+		ByteBuf entry = null;
+		for (EntityPlayerMP player : server.getPlayerList().getPlayers()) {
+			if (player.dimension == dimensionId) {
+				if (entry == null) {
+					entry = encode(message);
+				}
+				append(getBundle(player), entry, player);
+			}
+		}
+	}
+
+	/**
+	 * Queues the message to be sent to the server at the end of the client tick
+	 */
+	public synchronized void queueToServer(AbstractMessage<?> message) {
+		append(serverBound, encode(message), null);
+	}
+
+	@SubscribeEvent
+	public void onServerTick(ServerTickEvent event) {
+		if (event.phase == Phase.END) {
+			flushClientBound();
+		}
+	}
+
+	@SubscribeEvent
+	public void onClientTick(ClientTickEvent event) {
+		if (event.phase == Phase.END) {
+			flushServerBound();
+		}
+	}
+
+	private synchronized void flushClientBound() {
+		Iterator<Map.Entry<EntityPlayerMP, Bundle>> iterator = clientBound.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<EntityPlayerMP, Bundle> entry = iterator.next();
+			flush(entry.getValue(), entry.getKey());
+			iterator.remove();
+		}
+	}
+
+	private synchronized void flushServerBound() {
+		flush(serverBound, null);
+	}
+
+	private Bundle getBundle(EntityPlayerMP player) {
+		Bundle bundle = clientBound.get(player);
+		if (bundle == null) {
+			bundle = new Bundle();
+			clientBound.put(player, bundle);
+		}
+		return bundle;
+	}
+
+	/**
+	 * Encodes the message's discriminator, length, and payload into the scratch buffer
+	 * @return The scratch buffer, ready to be appended to one or more bundles
+	 */
+	private ByteBuf encode(AbstractMessage<?> message) {
+		payload.clear();
+		message.toBytes(payload);
+		scratch.clear();
+		scratch.writeByte(PacketDispatcher.getMessageId(message.getClass()));
+		scratch.writeVarInt(payload.readableBytes());
+		scratch.writeBytes(payload);
+		return scratch;
+	}
+
+	/**
+	 * Appends the encoded entry to the bundle, sending the bundle early if the entry would not fit
+	 * @param player The recipient, or null if the bundle is bound for the server
+	 */
+	private void append(Bundle bundle, ByteBuf entry, EntityPlayerMP player) {
+		int size = entry.readableBytes();
+		if (bundle.count > 0 && bundle.data.readableBytes() + size > MAX_BUNDLE_SIZE) {
+			flush(bundle, player);
+		}
+		bundle.data.writeBytes(entry, entry.readerIndex(), size);
+		bundle.count++;
+	}
+
+	/**
+	 * Sends the bundle's contents as a single packet, if any, and clears it
+	 * @param player The recipient, or null if the bundle is bound for the server
+	 */
+	private void flush(Bundle bundle, EntityPlayerMP player) {
+		if (bundle.count == 0) {
+			return;
+		}
+		byte[] data = new byte[bundle.data.readableBytes()];
+		bundle.data.readBytes(data);
+		BundlePacket packet = new BundlePacket(bundle.count, data);
+		bundle.data.clear();
+		bundle.count = 0;
+		if (player == null) {
+			dispatcher.sendToServer(packet);
+		} else if (player.connection != null && !player.hasDisconnected()) {
+			dispatcher.sendTo(packet, player);
+		}
+	}
+
+	private static final class Bundle
+	{
+		private final ByteBuf data = Unpooled.buffer();
+		private int count;
+	}
+}
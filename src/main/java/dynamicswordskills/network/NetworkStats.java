@@ -0,0 +1,271 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import dynamicswordskills.DynamicSwordSkills;
+import dynamicswordskills.ref.Config;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ClientTickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
+
+/**
+ * 
+ * Counts the messages, encoded bytes, decoding time and main thread queueing delay for
+ * each {@link AbstractMessage} class while {@link Config#collectNetworkStats()} is enabled.
+ * 
+ * Outbound figures are recorded as each message is encoded, which happens once per message
+ * no matter how many players it is sent to. A {@link BundlePacket}'s figures include those
+ * of every message inside it, so bundles are left out of the totals. In single player,
+ * the client and the integrated server record into the same statistics.
+ *
+ */
+public class NetworkStats
+{
+	public static final NetworkStats INSTANCE = new NetworkStats();
+
+	private final ConcurrentMap<Class<?>, Traffic> outbound = new ConcurrentHashMap<Class<?>, Traffic>();
+
+	private final ConcurrentMap<Class<?>, Traffic> inbound = new ConcurrentHashMap<Class<?>, Traffic>();
+
+	/** Time the statistics were last logged or reset, in milliseconds */
+	private long lastLogTime = System.currentTimeMillis();
+
+	private NetworkStats() {}
+
+	/**
+	 * Traffic figures for one message class in one direction
+	 */
+	public static final class Traffic
+	{
+		public final Class<?> type;
+		private long count;
+		private long bytes;
+		/** Total decoding time, inbound only */
+		private long decodeNanos;
+		/** Number of messages queued for the main thread, inbound only */
+		private long queued;
+		/** Total and longest main thread queueing delay, inbound only */
+		private long queueNanos;
+		private long maxQueueNanos;
+		/** Number of messages and bytes since the last log line */
+		private long intervalCount;
+		private long intervalBytes;
+
+		private Traffic(Class<?> type) {
+			this.type = type;
+		}
+
+		private synchronized void add(int size, long nanos) {
+			count++;
+			bytes += size;
+			decodeNanos += nanos;
+			intervalCount++;
+			intervalBytes += size;
+		}
+
+		private synchronized void addQueueDelay(long nanos) {
+			queued++;
+			queueNanos += nanos;
+			maxQueueNanos = Math.max(maxQueueNanos, nanos);
+		}
+
+		private synchronized void resetInterval() {
+			intervalCount = 0;
+			intervalBytes = 0;
+		}
+
+		public synchronized long getCount() { return count; }
+		public synchronized long getBytes() { return bytes; }
+		/** Returns the average decoding time in milliseconds */
+		public synchronized double getAverageDecodeMillis() { return (count == 0 ? 0.0D : decodeNanos / (count * 1000000.0D)); }
+		/** Returns the average main thread queueing delay in milliseconds */
+		public synchronized double getAverageQueueMillis() { return (queued == 0 ? 0.0D : queueNanos / (queued * 1000000.0D)); }
+		/** Returns the longest main thread queueing delay in milliseconds */
+		public synchronized double getMaxQueueMillis() { return maxQueueNanos / 1000000.0D; }
+	}
+
+	/** Sorts traffic by bytes, largest first */
+	private static final Comparator<Traffic> BY_BYTES = new Comparator<Traffic>() {
+		@Override
+		public int compare(Traffic a, Traffic b) {
+			return Long.compare(b.getBytes(), a.getBytes());
+		}
+	};
+
+	/**
+	 * Returns true if statistics should be recorded
+	 */
+	public static boolean isEnabled() {
+		return Config.collectNetworkStats();
+	}
+
+	private static Traffic get(ConcurrentMap<Class<?>, Traffic> map, Class<?> type) {
+		Traffic traffic = map.get(type);
+		if (traffic == null) {
+			traffic = new Traffic(type);
+			Traffic previous = map.putIfAbsent(type, traffic);
+			if (previous != null) {
+				traffic = previous;
+			}
+		}
+		return traffic;
+	}
+
+	/** Records a message encoded for sending */
+	void onEncoded(Class<?> type, int size) {
+		get(outbound, type).add(size, 0L);
+	}
+
+	/** Records a received message and the time taken to decode it */
+	void onDecoded(Class<?> type, int size, long nanos) {
+		get(inbound, type).add(size, nanos);
+	}
+
+	/** Records the time a received message waited for the main thread */
+	void onDequeued(Class<?> type, long nanos) {
+		get(inbound, type).addQueueDelay(nanos);
+	}
+
+	/**
+	 * Returns the traffic for each message class in the given direction, largest first
+	 */
+	public List<Traffic> getTraffic(boolean outgoing) {
+		List<Traffic> list = new ArrayList<Traffic>((outgoing ? outbound : inbound).values());
+		Collections.sort(list, BY_BYTES);
+		return list;
+	}
+
+	/**
+	 * Clears all statistics
+	 */
+	public synchronized void reset() {
+		outbound.clear();
+		inbound.clear();
+		lastLogTime = System.currentTimeMillis();
+	}
+
+	@SubscribeEvent
+	public void onServerTick(ServerTickEvent event) {
+		if (event.phase == Phase.END) {
+			checkLog();
+		}
+	}
+
+	@SubscribeEvent
+	public void onClientTick(ClientTickEvent event) {
+		if (event.phase == Phase.END) {
+			checkLog();
+		}
+	}
+
+	/**
+	 * Logs a summary of the traffic since the previous summary, if enabled and due
+	 */
+	private synchronized void checkLog() {
+		int interval = Config.getNetworkStatsLogInterval();
+		if (interval < 1 || !isEnabled()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long elapsed = now - lastLogTime;
+		if (elapsed < interval * 1000L) {
+			return;
+		}
+		lastLogTime = now;
+		StringBuilder sb = new StringBuilder("Network traffic over the last ").append(elapsed / 1000L).append("s:");
+		appendInterval(sb, "out", outbound);
+		sb.append(';');
+		appendInterval(sb, "in", inbound);
+		DynamicSwordSkills.logger.info(sb.toString());
+	}
+
+	/**
+	 * Appends the direction's totals since the previous summary and its three busiest message classes, then starts a new interval
+	 */
+	private static void appendInterval(StringBuilder sb, String direction, Map<Class<?>, Traffic> map) {
+		List<Interval> intervals = new ArrayList<Interval>(map.size());
+		long count = 0;
+		long bytes = 0;
+		for (Traffic traffic : map.values()) {
+			Interval interval = new Interval(traffic);
+			if (traffic.type != BundlePacket.class) {
+				intervals.add(interval);
+				count += interval.count;
+				bytes += interval.bytes;
+			}
+		}
+		Collections.sort(intervals);
+		sb.append(' ').append(direction).append(' ').append(count).append(" messages / ").append(formatBytes(bytes));
+		int shown = Math.min(3, intervals.size());
+		while (shown > 0 && intervals.get(shown - 1).bytes == 0) {
+			shown--;
+		}
+		for (int i = 0; i < shown; ++i) {
+			Interval interval = intervals.get(i);
+			sb.append(i == 0 ? " (" : ", ").append(interval.type.getSimpleName()).append(' ').append(formatBytes(interval.bytes));
+		}
+		if (shown > 0) {
+			sb.append(')');
+		}
+	}
+
+	/**
+	 * One message class's traffic since the previous summary, taken from its {@link Traffic}; sorts by bytes, largest first
+	 */
+	private static final class Interval implements Comparable<Interval>
+	{
+		private final Class<?> type;
+		private final long count;
+		private final long bytes;
+
+		private Interval(Traffic traffic) {
+			synchronized (traffic) {
+				this.type = traffic.type;
+				this.count = traffic.intervalCount;
+				this.bytes = traffic.intervalBytes;
+				traffic.resetInterval();
+			}
+		}
+
+		@Override
+		public int compareTo(Interval other) {
+			return Long.compare(other.bytes, bytes);
+		}
+	}
+
+	/**
+	 * Returns the number of bytes in a short human readable form
+	 */
+	public static String formatBytes(long bytes) {
+		if (bytes < 1024L) {
+			return bytes + " B";
+		} else if (bytes < 1024L * 1024L) {
+			return String.format("%.1f KB", bytes / 1024.0D);
+		}
+		return String.format("%.1f MB", bytes / (1024.0D * 1024.0D));
+	}
+}
@@ -17,8 +17,12 @@
 
 package dynamicswordskills.network;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
@@ -30,6 +34,7 @@ import dynamicswordskills.network.bidirectional.AttackTimePacket;
 import dynamicswordskills.network.bidirectional.DeactivateSkillPacket;
 import dynamicswordskills.network.bidirectional.PlaySoundPacket;
 import dynamicswordskills.network.client.MortalDrawPacket;
+import dynamicswordskills.network.client.SetTargetPacket;
 import dynamicswordskills.network.client.SyncConfigPacket;
 import dynamicswordskills.network.client.SyncPlayerInfoPacket;
 import dynamicswordskills.network.client.SyncSkillPacket;
@@ -37,14 +42,25 @@ import dynamicswordskills.network.client.UpdateComboPacket;
 import dynamicswordskills.network.server.AddExhaustionPacket;
 import dynamicswordskills.network.server.DashImpactPacket;
 import dynamicswordskills.network.server.EndComboPacket;
+import dynamicswordskills.network.server.NextTargetPacket;
 import dynamicswordskills.network.server.OpenGuiPacket;
 import dynamicswordskills.network.server.RefreshSpinPacket;
+import dynamicswordskills.network.server.RequestComboPacket;
+import dynamicswordskills.network.server.RequestPlayerInfoPacket;
+import dynamicswordskills.network.server.RequestTargetPacket;
 import dynamicswordskills.network.server.TargetIdPacket;
+import dynamicswordskills.network.server.TargetingSettingsPacket;
+import dynamicswordskills.ref.Config;
 import dynamicswordskills.ref.ModInfo;
 
 /**
  * 
  * Houses the SimpleNetworkWrapper instance and provides wrapper methods for sending packets.
+ * 
+ * When {@link Config#useBundledPackets()} is enabled, {@link AbstractMessage}s are queued by
+ * the {@link MessageBundler} and sent to each destination as one packet at the end of the tick.
+ * 
+ * Traffic for each message type is recorded by {@link NetworkStats} when enabled.
  *
  */
 public class PacketDispatcher
@@ -53,6 +69,11 @@ public class PacketDispatcher
 
 	private static final SimpleNetworkWrapper dispatcher = NetworkRegistry.INSTANCE.newSimpleChannel(ModInfo.CHANNEL);
 
+	private static final MessageBundler bundler = new MessageBundler(dispatcher);
+
+	/** Registered message classes, indexed by discriminator */
+	private static final List<Class<? extends AbstractMessage<?>>> messages = new ArrayList<Class<? extends AbstractMessage<?>>>();
+
 	/**
 	 *  Registers all packets and handlers - call this during {@link FMLPreInitializationEvent}
 	 */
@@ -65,6 +86,7 @@ public class PacketDispatcher
 
 		// Packets handled on CLIENT
 		registerMessage(MortalDrawPacket.class);
+		registerMessage(SetTargetPacket.class);
 		registerMessage(SyncConfigPacket.class);
 		registerMessage(SyncPlayerInfoPacket.class);
 		registerMessage(SyncSkillPacket.class);
@@ -76,13 +98,24 @@ public class PacketDispatcher
 		registerMessage(EndComboPacket.class);
 		registerMessage(OpenGuiPacket.class);
 		registerMessage(RefreshSpinPacket.class);
+		registerMessage(RequestComboPacket.class);
+		registerMessage(RequestPlayerInfoPacket.class);
+		registerMessage(RequestTargetPacket.class);
 		registerMessage(TargetIdPacket.class);
+		registerMessage(NextTargetPacket.class);
+		registerMessage(TargetingSettingsPacket.class);
+
+		// Bundled packets - keep last so the other discriminators do not change
+		registerMessage(BundlePacket.class);
+		MinecraftForge.EVENT_BUS.register(bundler);
+		MinecraftForge.EVENT_BUS.register(NetworkStats.INSTANCE);
 	}
 
 	/**
 	 * Registers an {@link AbstractMessage} to the appropriate side(s)
 	 */
 	private static final <T extends AbstractMessage<T> & IMessageHandler<T, IMessage>> void registerMessage(Class<T> clazz) {
+		messages.add(clazz);
 		if (AbstractMessage.AbstractClientMessage.class.isAssignableFrom(clazz)) {
 			PacketDispatcher.dispatcher.registerMessage(clazz, clazz, packetId++, Side.CLIENT);
 		} else if (AbstractMessage.AbstractServerMessage.class.isAssignableFrom(clazz)) {
@@ -93,12 +126,45 @@ public class PacketDispatcher
 		}
 	}
 
+	/**
+	 * Returns the discriminator the message class was registered with
+	 */
+	static final int getMessageId(Class<?> clazz) {
+		int id = messages.indexOf(clazz);
+		if (id < 0) {
+			throw new IllegalArgumentException("Unregistered message class " + clazz.getName());
+		}
+		return id;
+	}
+
+	/**
+	 * Returns a new, empty instance of the message class registered with the discriminator
+	 */
+	static final AbstractMessage<?> createMessage(int id) {
+		if (id < 0 || id >= messages.size()) {
+			throw new IllegalArgumentException("Undefined message discriminator " + id);
+		}
+		try {
+			return messages.get(id).newInstance();
+		} catch (Exception e) {
+			throw new RuntimeException("Failed to create message " + messages.get(id).getName(), e);
+		}
+	}
+
+	private static final boolean isBundled(IMessage message) {
+		return Config.useBundledPackets() && message instanceof AbstractMessage;
+	}
+
 	/**
 	 * Send this message to the specified player's client-side counterpart.
 	 * See {@link SimpleNetworkWrapper#sendTo(IMessage, EntityPlayerMP)}
 	 */
 	public static final void sendTo(IMessage message, EntityPlayerMP player) {
-		PacketDispatcher.dispatcher.sendTo(message, player);
+		if (isBundled(message)) {
+			bundler.queueTo((AbstractMessage<?>) message, player);
+		} else {
+			PacketDispatcher.dispatcher.sendTo(message, player);
+		}
 	}
 
 	/**
@@ -106,7 +172,11 @@ public class PacketDispatcher
 	 * See {@link SimpleNetworkWrapper#sendToAll(IMessage)}
 	 */
 	public static void sendToAll(IMessage message) {
-		PacketDispatcher.dispatcher.sendToAll(message);
+		if (isBundled(message)) {
+			bundler.queueToAll((AbstractMessage<?>) message);
+		} else {
+			PacketDispatcher.dispatcher.sendToAll(message);
+		}
 	}
 
 	/**
@@ -114,7 +184,11 @@ public class PacketDispatcher
 	 * See {@link SimpleNetworkWrapper#sendToAllAround(IMessage, NetworkRegistry.TargetPoint)}
 	 */
 	public static final void sendToAllAround(IMessage message, NetworkRegistry.TargetPoint point) {
-		PacketDispatcher.dispatcher.sendToAllAround(message, point);
+		if (isBundled(message)) {
+			bundler.queueToAllAround((AbstractMessage<?>) message, point);
+		} else {
+			PacketDispatcher.dispatcher.sendToAllAround(message, point);
+		}
 	}
 
 	/**
@@ -138,7 +212,11 @@ public class PacketDispatcher
 	 * See {@link SimpleNetworkWrapper#sendToDimension(IMessage, int)}
 	 */
 	public static final void sendToDimension(IMessage message, int dimensionId) {
-		PacketDispatcher.dispatcher.sendToDimension(message, dimensionId);
+		if (isBundled(message)) {
+			bundler.queueToDimension((AbstractMessage<?>) message, dimensionId);
+		} else {
+			PacketDispatcher.dispatcher.sendToDimension(message, dimensionId);
+		}
 	}
 
 	/**
@@ -146,6 +224,10 @@ public class PacketDispatcher
 	 * See {@link SimpleNetworkWrapper#sendToServer(IMessage)}
 	 */
 	public static final void sendToServer(IMessage message) {
-		PacketDispatcher.dispatcher.sendToServer(message);
+		if (isBundled(message)) {
+			bundler.queueToServer((AbstractMessage<?>) message);
+		} else {
+			PacketDispatcher.dispatcher.sendToServer(message);
+		}
 	}
 }
@@ -0,0 +1,71 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network.client;
+
+import java.io.IOException;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.relauncher.Side;
+import dynamicswordskills.entity.DSSPlayerInfo;
+import dynamicswordskills.network.AbstractMessage.AbstractClientMessage;
+import dynamicswordskills.network.PacketDispatcher;
+import dynamicswordskills.network.server.RequestTargetPacket;
+import dynamicswordskills.skills.ILockOnTarget;
+
+/**
+ * 
+ * Sent by the server when server-side targeting is enabled and the player's ILockOnTarget
+ * skill switches to a different target; losing the target deactivates the skill instead.
+ *
+ */
+public class SetTargetPacket extends AbstractClientMessage<SetTargetPacket>
+{
+	private int entityId;
+
+	public SetTargetPacket() {}
+
+	public SetTargetPacket(Entity target) {
+		this.entityId = target.getEntityId();
+	}
+
+	@Override
+	protected void read(PacketBuffer buffer) throws IOException {
+		entityId = buffer.readVarInt();
+	}
+
+	@Override
+	protected void write(PacketBuffer buffer) throws IOException {
+		buffer.writeVarInt(entityId);
+	}
+
+	@Override
+	protected void process(EntityPlayer player, Side side) {
+		ILockOnTarget skill = DSSPlayerInfo.get(player).getTargetingSkill();
+		Entity target = player.getEntityWorld().getEntityByID(entityId);
+		if (skill != null && skill.isLockedOn()) {
+			if (target != null) {
+				skill.setCurrentTarget(player, target);
+			} else {
+				// not tracking the entity yet; the server only sends targets that changed, so ask again
+				PacketDispatcher.sendToServer(new RequestTargetPacket());
+			}
+		}
+	}
+}
@@ -23,6 +23,8 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.relauncher.Side;
 import dynamicswordskills.network.AbstractMessage.AbstractClientMessage;
+import dynamicswordskills.network.PacketDispatcher;
+import dynamicswordskills.network.server.TargetingSettingsPacket;
 import dynamicswordskills.ref.Config;
 
 /**
@@ -36,6 +38,7 @@ public class SyncConfigPacket extends AbstractClientMessage<SyncConfigPacket>
 	private boolean isValid;
 	public int baseSwingSpeed;
 	public boolean requireFullHealth;
+	public boolean serverTargeting;
 
 	public SyncConfigPacket() {}
 
@@ -50,6 +53,7 @@ public class SyncConfigPacket extends AbstractClientMessage<SyncConfigPacket>
 	protected void read(PacketBuffer buffer) throws IOException {
 		baseSwingSpeed = buffer.readInt();
 		requireFullHealth = buffer.readBoolean();
+		serverTargeting = buffer.readBoolean();
 		isValid = true;
 	}
 
@@ -57,10 +61,12 @@ public class SyncConfigPacket extends AbstractClientMessage<SyncConfigPacket>
 	protected void write(PacketBuffer buffer) throws IOException {
 		buffer.writeInt(Config.getBaseSwingSpeed());
 		buffer.writeBoolean(Config.getHealthAllowance(1) == 0.0F);
+		buffer.writeBoolean(Config.isServerTargeting());
 	}
 
 	@Override
 	protected void process(EntityPlayer player, Side side) {
 		Config.syncClientSettings(this);
+		PacketDispatcher.sendToServer(new TargetingSettingsPacket(Config.autoTargetEnabled(), Config.canTargetPlayers()));
 	}
 }
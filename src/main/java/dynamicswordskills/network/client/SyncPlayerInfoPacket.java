@@ -20,7 +20,6 @@ package dynamicswordskills.network.client;
 import java.io.IOException;
 
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.relauncher.Side;
 import dynamicswordskills.entity.DSSPlayerInfo;
@@ -28,22 +27,28 @@ import dynamicswordskills.network.AbstractMessage.AbstractClientMessage;
 
 /**
  * 
- * Synchronizes all PlayerInfo data on the client
+ * Synchronizes all PlayerInfo data on the client, replacing any skills it already has
  *
  */
 public class SyncPlayerInfoPacket extends AbstractClientMessage<SyncPlayerInfoPacket>
 {
-	/** NBTTagCompound used to store and transfer the Player's Info */
-	private NBTTagCompound compound;
+	/** Version of the client data after this packet is applied */
+	private int version;
+
+	/** Interleaved skill id and level pairs for every skill the player has */
+	private byte[] data;
 
 	/** Whether skills should validate; only false when skills reset */
 	private boolean validate = true;
 
 	public SyncPlayerInfoPacket() {}
 
-	public SyncPlayerInfoPacket(DSSPlayerInfo info) {
-		compound = new NBTTagCompound();
-		info.writeNBT(compound);
+	/**
+	 * @param data Interleaved skill id and level pairs for every skill the player has
+	 */
+	public SyncPlayerInfoPacket(int version, byte[] data) {
+		this.version = version;
+		this.data = data;
 	}
 
 	/**
@@ -56,22 +61,22 @@ public class SyncPlayerInfoPacket extends AbstractClientMessage<SyncPlayerInfoPa
 
 	@Override
 	protected void read(PacketBuffer buffer) throws IOException {
-		compound = buffer.readCompoundTag();
+		version = buffer.readVarInt();
 		validate = buffer.readBoolean();
+		data = new byte[buffer.readUnsignedByte() * 2];
+		buffer.readBytes(data);
 	}
 
 	@Override
 	protected void write(PacketBuffer buffer) throws IOException {
-		buffer.writeCompoundTag(compound);
+		buffer.writeVarInt(version);
 		buffer.writeBoolean(validate);
+		buffer.writeByte(data.length / 2);
+		buffer.writeBytes(data);
 	}
 
 	@Override
 	protected void process(EntityPlayer player, Side side) {
-		DSSPlayerInfo info = DSSPlayerInfo.get(player);
-		info.readNBT(compound);
-		if (validate) {
-			info.validateSkills();
-		}
+		DSSPlayerInfo.get(player).applySkillData(version, data, validate);
 	}
 }
@@ -20,52 +20,66 @@ package dynamicswordskills.network.client;
 import java.io.IOException;
 
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.relauncher.Side;
 import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.network.AbstractMessage.AbstractClientMessage;
-import dynamicswordskills.skills.SkillBase;
 
 /**
  * 
- * Synchronizes the client-side version of a skill with the server-side data.
+ * Synchronizes the client-side skills with the server-side data, sending only
+ * the skills that changed since the previous synchronization.
+ * 
+ * Each delta is applied only on top of the version it was built from; if the client's
+ * version does not match, it requests a full {@link SyncPlayerInfoPacket} instead.
  *
  */
 public class SyncSkillPacket extends AbstractClientMessage<SyncSkillPacket>
 {
-	/** The ID of the skill to update */
-	private byte id;
+	/** Version of the client data this delta applies to */
+	private int baseVersion;
+
+	/** Version of the client data after this delta is applied */
+	private int version;
+
+	/** Whether skills should validate after the delta is applied */
+	private boolean validate;
 
-	/** Stores the skill's data */
-	private NBTTagCompound compound;
+	/** Interleaved skill id and level pairs; a level of 0 removes the skill */
+	private byte[] data;
 
 	public SyncSkillPacket() {}
 
 	/**
-	 * Synchronizes the client side skill with the server skill's data
-	 * @param skill A level 0 skill will be removed
+	 * @param data Interleaved skill id and level pairs; a level of 0 removes the skill
 	 */
-	public SyncSkillPacket(SkillBase skill) {
-		id = skill.getId();
-		compound = new NBTTagCompound();
-		skill.writeToNBT(compound);
+	public SyncSkillPacket(int baseVersion, int version, byte[] data, boolean validate) {
+		this.baseVersion = baseVersion;
+		this.version = version;
+		this.data = data;
+		this.validate = validate;
 	}
 
 	@Override
 	protected void read(PacketBuffer buffer) throws IOException {
-		id = buffer.readByte();
-		compound = buffer.readCompoundTag();
+		baseVersion = buffer.readVarInt();
+		version = buffer.readVarInt();
+		validate = buffer.readBoolean();
+		data = new byte[buffer.readUnsignedByte() * 2];
+		buffer.readBytes(data);
 	}
 
 	@Override
 	protected void write(PacketBuffer buffer) throws IOException {
-		buffer.writeByte(id);
-		buffer.writeCompoundTag(compound);
+		buffer.writeVarInt(baseVersion);
+		buffer.writeVarInt(version);
+		buffer.writeBoolean(validate);
+		buffer.writeByte(data.length / 2);
+		buffer.writeBytes(data);
 	}
 
 	@Override
 	protected void process(EntityPlayer player, Side side) {
-		DSSPlayerInfo.get(player).syncClientSideSkill(id, compound);
+		DSSPlayerInfo.get(player).applySkillDelta(baseVersion, version, data, validate);
 	}
 }
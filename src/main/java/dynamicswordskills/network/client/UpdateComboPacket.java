@@ -20,52 +20,112 @@ package dynamicswordskills.network.client;
 import java.io.IOException;
 
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.relauncher.Side;
 import dynamicswordskills.DynamicSwordSkills;
 import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.network.AbstractMessage.AbstractClientMessage;
+import dynamicswordskills.network.PacketDispatcher;
+import dynamicswordskills.network.server.RequestComboPacket;
 import dynamicswordskills.skills.Combo;
 import dynamicswordskills.skills.ICombo;
+import dynamicswordskills.skills.SkillBase;
 
 /**
  * 
  * Packet responsible for keeping attack Combos synchronized between server and client.
+ * 
+ * Carries either the whole combo, sent when it starts or on request, or the events since
+ * the previous update; if the events do not follow on from the client's combo, the client
+ * requests the whole combo with a {@link RequestComboPacket}.
  *
  */
 public class UpdateComboPacket extends AbstractClientMessage<UpdateComboPacket>
 {
-	/** Stores data of combo to be updated */
-	private NBTTagCompound compound;
+	/** Combo data, encoded when the packet is created as the combo keeps changing */
+	private byte[] data;
+
+	/** Id of the combo's skill */
+	private byte skillId;
+
+	/** The whole combo, if sent */
+	private Combo combo;
+
+	/** Sequence number the events start from */
+	private int baseSequence;
+
+	/** Number of events */
+	private int count;
+
+	private byte[] types;
+
+	private float[] values;
+
+	private int[] entityIds;
 
 	public UpdateComboPacket() {}
 
-	public UpdateComboPacket(Combo combo) {
-		compound = combo.writeToNBT();
+	/**
+	 * @param full true to send the whole combo, otherwise only the events since the last update are sent
+	 */
+	public UpdateComboPacket(Combo combo, boolean full) {
+		PacketBuffer buffer = getScratchBuffer();
+		buffer.writeBoolean(full);
+		if (full) {
+			combo.writeSnapshot(buffer);
+		} else {
+			buffer.writeByte(combo.getSkill());
+			combo.writePendingEvents(buffer);
+		}
+		data = new byte[buffer.readableBytes()];
+		buffer.readBytes(data);
 	}
 
 	@Override
 	protected void read(PacketBuffer buffer) throws IOException {
-		compound = buffer.readCompoundTag();
+		if (buffer.readBoolean()) {
+			combo = Combo.readSnapshot(buffer);
+			skillId = combo.getSkill();
+		} else {
+			skillId = buffer.readByte();
+			baseSequence = buffer.readInt();
+			count = buffer.readVarInt();
+			types = new byte[count];
+			values = new float[count];
+			entityIds = new int[count];
+			for (int i = 0; i < count; ++i) {
+				types[i] = buffer.readByte();
+				values[i] = buffer.readFloat();
+				entityIds[i] = buffer.readInt();
+			}
+		}
 	}
 
 	@Override
 	protected void write(PacketBuffer buffer) throws IOException {
-		buffer.writeCompoundTag(compound);
+		buffer.writeBytes(data);
 	}
 
 	@Override
 	protected void process(EntityPlayer player, Side side) {
-		Combo combo = Combo.readFromNBT(compound);
 		try {
-			ICombo skill = (ICombo) DSSPlayerInfo.get(player).getPlayerSkill(combo.getSkill());
+			DSSPlayerInfo info = DSSPlayerInfo.get(player);
+			SkillBase skill = info.getPlayerSkill(skillId);
 			if (skill != null) {
-				combo.getEntityFromWorld(player.getEntityWorld());
-				skill.setCombo(combo);
+				if (combo != null) {
+					combo.getEntityFromWorld(player.getEntityWorld());
+					((ICombo) skill).setCombo(combo);
+				} else {
+					Combo current = ((ICombo) skill).getCombo();
+					if (current == null || !current.applyEvents(player.getEntityWorld(), baseSequence, count, types, values, entityIds)) {
+						PacketDispatcher.sendToServer(new RequestComboPacket(skill));
+						return;
+					}
+				}
+				info.scheduleUpdate(skill);
 			}
 		} catch (ClassCastException e) {
-			DynamicSwordSkills.logger.error("Class Cast Exception from invalid Combo skill id of " + combo.getSkill());
+			DynamicSwordSkills.logger.error("Class Cast Exception from invalid Combo skill id of " + skillId);
 		}
 	}
 }
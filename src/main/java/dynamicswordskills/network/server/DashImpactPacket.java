@@ -24,6 +24,7 @@ import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.network.AbstractMessage.AbstractServerMessage;
 import dynamicswordskills.skills.Dash;
 import dynamicswordskills.skills.SkillBase;
+import dynamicswordskills.util.ImpactResult;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.network.PacketBuffer;
@@ -66,6 +67,16 @@ public class DashImpactPacket extends AbstractServerMessage<DashImpactPacket>
 		}
 	}
 
+	/**
+	 * Creates dash packet from the impact record filled in by {@link dynamicswordskills.util.TargetUtils#checkForImpact}
+	 */
+	public DashImpactPacket(EntityPlayer player, ImpactResult impact) {
+		this.hitType = (byte) impact.typeOfHit.ordinal();
+		if (impact.typeOfHit == RayTraceResult.Type.ENTITY) {
+			this.entityId = impact.entityHit.getEntityId();
+		}
+	}
+
 	@Override
 	protected void read(PacketBuffer buffer) throws IOException {
 		hitType = buffer.readByte();
@@ -0,0 +1,52 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network.server;
+
+import java.io.IOException;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.relauncher.Side;
+import dynamicswordskills.entity.DSSPlayerInfo;
+import dynamicswordskills.network.AbstractMessage.AbstractServerMessage;
+import dynamicswordskills.skills.ILockOnTarget;
+
+/**
+ * 
+ * Sent when the player presses the next target key while server-side targeting is enabled,
+ * so that the server can select the next target; see {@link dynamicswordskills.network.client.SetTargetPacket}
+ *
+ */
+public class NextTargetPacket extends AbstractServerMessage<NextTargetPacket>
+{
+	public NextTargetPacket() {}
+
+	@Override
+	protected void read(PacketBuffer buffer) throws IOException {}
+
+	@Override
+	protected void write(PacketBuffer buffer) throws IOException {}
+
+	@Override
+	protected void process(EntityPlayer player, Side side) {
+		ILockOnTarget skill = DSSPlayerInfo.get(player).getTargetingSkill();
+		if (skill != null && skill.isLockedOn()) {
+			skill.getNextTarget(player);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network.server;
+
+import java.io.IOException;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.relauncher.Side;
+import dynamicswordskills.entity.DSSPlayerInfo;
+import dynamicswordskills.network.AbstractMessage.AbstractServerMessage;
+import dynamicswordskills.skills.Combo;
+import dynamicswordskills.skills.ICombo;
+import dynamicswordskills.skills.SkillBase;
+
+/**
+ * 
+ * Sent when the client receives combo events it cannot apply, to request the whole
+ * combo in the next {@link dynamicswordskills.network.client.UpdateComboPacket}
+ *
+ */
+public class RequestComboPacket extends AbstractServerMessage<RequestComboPacket>
+{
+	/** Id of skill that implements ICombo */
+	private byte id;
+
+	public RequestComboPacket() {}
+
+	public RequestComboPacket(SkillBase skill) {
+		this.id = skill.getId();
+	}
+
+	@Override
+	protected void read(PacketBuffer buffer) throws IOException {
+		id = buffer.readByte();
+	}
+
+	@Override
+	protected void write(PacketBuffer buffer) throws IOException {
+		buffer.writeByte(id);
+	}
+
+	@Override
+	protected void process(EntityPlayer player, Side side) {
+		SkillBase skill = DSSPlayerInfo.get(player).getPlayerSkill(id);
+		if (skill instanceof ICombo) {
+			Combo combo = ((ICombo) skill).getCombo();
+			if (combo != null) {
+				combo.requestFullSync(player);
+			}
+		}
+	}
+}
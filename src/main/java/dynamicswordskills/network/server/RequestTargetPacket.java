@@ -0,0 +1,53 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network.server;
+
+import java.io.IOException;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.relauncher.Side;
+import dynamicswordskills.entity.DSSPlayerInfo;
+import dynamicswordskills.network.AbstractMessage.AbstractServerMessage;
+import dynamicswordskills.skills.ILockOnTarget;
+import dynamicswordskills.skills.SwordBasic;
+
+/**
+ * 
+ * Sent when the client receives a {@link dynamicswordskills.network.client.SetTargetPacket}
+ * for an entity it is not tracking, so that the server sends the current target again
+ *
+ */
+public class RequestTargetPacket extends AbstractServerMessage<RequestTargetPacket>
+{
+	public RequestTargetPacket() {}
+
+	@Override
+	protected void read(PacketBuffer buffer) throws IOException {}
+
+	@Override
+	protected void write(PacketBuffer buffer) throws IOException {}
+
+	@Override
+	protected void process(EntityPlayer player, Side side) {
+		ILockOnTarget skill = DSSPlayerInfo.get(player).getTargetingSkill();
+		if (skill instanceof SwordBasic && skill.isLockedOn()) {
+			((SwordBasic) skill).requestTargetSync();
+		}
+	}
+}
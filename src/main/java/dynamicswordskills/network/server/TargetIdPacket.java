@@ -26,6 +26,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import dynamicswordskills.DynamicSwordSkills;
 import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.network.AbstractMessage.AbstractServerMessage;
+import dynamicswordskills.ref.Config;
 import dynamicswordskills.skills.ILockOnTarget;
 import dynamicswordskills.skills.SkillBase;
 
@@ -87,7 +88,8 @@ public class TargetIdPacket extends AbstractServerMessage<TargetIdPacket>
 	@Override
 	protected void process(EntityPlayer player, Side side) {
 		ILockOnTarget skill = DSSPlayerInfo.get(player).getTargetingSkill();
-		if (skill != null) {
+		// the server selects targets itself in this mode; ids from the client may be stale
+		if (skill != null && !Config.isServerTargeting()) {
 			if (isNull) {
 				skill.setCurrentTarget(player, null);
 			} else {
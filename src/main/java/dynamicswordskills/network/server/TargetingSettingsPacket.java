@@ -0,0 +1,63 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.network.server;
+
+import java.io.IOException;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.relauncher.Side;
+import dynamicswordskills.entity.DSSPlayerInfo;
+import dynamicswordskills.network.AbstractMessage.AbstractServerMessage;
+
+/**
+ * 
+ * Informs the server of the player's client side targeting preferences, which the server
+ * needs when it selects targets itself; sent after login and whenever either one is toggled.
+ *
+ */
+public class TargetingSettingsPacket extends AbstractServerMessage<TargetingSettingsPacket>
+{
+	private boolean autoTarget;
+
+	private boolean targetPlayers;
+
+	public TargetingSettingsPacket() {}
+
+	public TargetingSettingsPacket(boolean autoTarget, boolean targetPlayers) {
+		this.autoTarget = autoTarget;
+		this.targetPlayers = targetPlayers;
+	}
+
+	@Override
+	protected void read(PacketBuffer buffer) throws IOException {
+		autoTarget = buffer.readBoolean();
+		targetPlayers = buffer.readBoolean();
+	}
+
+	@Override
+	protected void write(PacketBuffer buffer) throws IOException {
+		buffer.writeBoolean(autoTarget);
+		buffer.writeBoolean(targetPlayers);
+	}
+
+	@Override
+	protected void process(EntityPlayer player, Side side) {
+		DSSPlayerInfo.get(player).setTargetingSettings(autoTarget, targetPlayers);
+	}
+}
@@ -97,6 +97,26 @@ public class Config
 	private static boolean requireSpinAttack;
 	/** [SYNC] [Super Spin Attack | Sword Beam] True to require a completely full health bar to use, or false to allow a small amount to be missing per level */
 	private static boolean requireFullHealth;
+	/** [Saving] Save player skill data in the compact binary format; saves written this way can not be read by older versions */
+	private static boolean compactSkillData;
+	/** [Saving] Save player skill data to separate files on a background thread instead of during the player save */
+	private static boolean asyncSkillSaving;
+	/** [Targeting] Find look targets with a single query over the whole search volume instead of one query per block */
+	private static boolean sweptTargeting;
+	/** [Targeting] Number of ticks a line of sight result may be reused while neither entity moves [0-20] */
+	private static int sightCacheTicks;
+	/** [Targeting] Share one spatial index of living entities per world for all skill entity queries */
+	private static boolean spatialIndex;
+	/** [Targeting] Trace line of sight to many look target candidates in parallel against a snapshot of nearby blocks */
+	private static boolean parallelSight;
+	/** [Targeting] Select and validate lock-on targets on the server instead of trusting the client (synced to client) */
+	private static boolean serverTargeting;
+	/** [Network] Queue messages for each destination and send them as a single packet at the end of the tick */
+	private static boolean bundlePackets;
+	/** [Network] Count messages, bytes, decoding time and main thread delay for each message type; see /dss net */
+	private static boolean networkStats;
+	/** [Network] Seconds between network traffic summaries in the log, while statistics are collected (0 to disable) [0-3600] */
+	private static int networkStatsLogInterval;
 	/** Enable use of a skill */
 	private static boolean[] enableSkill;
 	/*================== DROPS =====================*/
@@ -156,6 +176,16 @@ public class Config
 		skillSwordLevel = MathHelper.clamp(config.get("general", "[Skill Swords] Skill level provided by the Creative Tab Skill Swords [1-5]", 3).getInt(), 1, 5);
 		requireSpinAttack = config.get("general", "[Skill Swords][Super Spin Attack] Require player to have at least one level in Spin Attack to perform extra spins using a skill item", false).getBoolean(false);
 		requireFullHealth = config.get("general", "[Super Spin Attack | Sword Beam] True to require a completely full health bar to use, or false to allow a small amount to be missing per level", false).getBoolean(false);
+		compactSkillData = config.get("general", "[Saving] Save player skill data in the compact binary format; saves written this way can not be read by older versions", false).getBoolean(false);
+		asyncSkillSaving = config.get("general", "[Saving] Save player skill data to separate files on a background thread instead of during the player save", false).getBoolean(false);
+		sweptTargeting = config.get("general", "[Targeting] Find look targets with a single query over the whole search volume instead of one query per block", true).getBoolean(true);
+		sightCacheTicks = MathHelper.clamp(config.get("general", "[Targeting] Number of ticks a line of sight result may be reused while neither entity moves [0-20]", 2).getInt(), 0, 20);
+		spatialIndex = config.get("general", "[Targeting] Share one spatial index of living entities per world for all skill entity queries", true).getBoolean(true);
+		parallelSight = config.get("general", "[Targeting] Trace line of sight to many look target candidates in parallel against a snapshot of nearby blocks", false).getBoolean(false);
+		serverTargeting = config.get("general", "[Targeting] Select and validate lock-on targets on the server instead of trusting the client", false).getBoolean(false);
+		bundlePackets = config.get("general", "[Network] Queue messages for each destination and send them as a single packet at the end of the tick", false).getBoolean(false);
+		networkStats = config.get("general", "[Network] Count messages, bytes, decoding time and main thread delay for each message type; see /dss net", false).getBoolean(false);
+		networkStatsLogInterval = MathHelper.clamp(config.get("general", "[Network] Seconds between network traffic summaries in the log, while statistics are collected (0 to disable) [0-3600]", 300).getInt(), 0, 3600);
 
 		category = "enabledskills";
 		config.addCustomCategoryComment(category,
@@ -209,6 +239,16 @@ public class Config
 	public static float getHealthAllowance(int level) {
 		return (requireFullHealth ? 0.0F : (0.6F * level));
 	}
+	public static boolean useCompactSkillData() { return compactSkillData; }
+	public static boolean useAsyncSkillSaving() { return asyncSkillSaving; }
+	public static boolean useSweptTargeting() { return sweptTargeting; }
+	public static int getSightCacheTicks() { return sightCacheTicks; }
+	public static boolean useSpatialIndex() { return spatialIndex; }
+	public static boolean useParallelSight() { return parallelSight; }
+	public static boolean isServerTargeting() { return serverTargeting; }
+	public static boolean useBundledPackets() { return bundlePackets; }
+	public static boolean collectNetworkStats() { return networkStats; }
+	public static int getNetworkStatsLogInterval() { return networkStatsLogInterval; }
 	public static final boolean isSkillEnabled(int id) { return (id > -1 && id < enableSkill.length ? enableSkill[id] : false); }
 	/*================== DROPS =====================*/
 	public static boolean arePlayerDropsEnabled() { return enablePlayerDrops; }
@@ -230,5 +270,6 @@ public class Config
 		}
 		Config.baseSwingSpeed = msg.baseSwingSpeed;
 		Config.requireFullHealth = msg.requireFullHealth;
+		Config.serverTargeting = msg.serverTargeting;
 	}
 }
@@ -154,6 +154,8 @@ public class ArmorBreak extends SkillActive
 		requiresReset = (key == mc.gameSettings.keyBindAttack);
 		if (requiresReset || key == DSSKeyHandler.keys[DSSKeyHandler.KEY_ATTACK]) {
 			charge = getChargeTime(player);
+			// keyPressed is called manually rather than via DSSPlayerInfo#onKeyPressed, so wake the skill here
+			DSSPlayerInfo.get(player).scheduleUpdate(this);
 			if (requiresReset) {
 				// manually set the keybind state, since it will not be set by the canceled mouse event
 				// releasing the mouse unsets it normally, but it must be manually unset if the skill is triggered
@@ -242,12 +244,23 @@ public class ArmorBreak extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return charge > 0 || isActive() || DSSPlayerInfo.get(player).armSwing != 0.0F;
+	}
+
+	@Override
+	public int getListenerHooks() {
+		return HOOK_IMPACT;
+	}
+
 	/**
 	 * Deactivates this skill and inflicts armor-ignoring damage directly to the
 	 * target; note that this causes the LivingHurtEvent to repost, but since the
 	 * skill is no longer active it will behave normally. The current event's
 	 * damage is set to zero to avoid double damage.
 	 */
+	@Override
 	public void onImpact(EntityPlayer player, LivingHurtEvent event) {
 		activeTimer = 0;
 		PlayerUtils.playSoundAtEntity(player.getEntityWorld(), player, ModSounds.ARMOR_BREAK, SoundCategory.PLAYERS, 0.4F, 0.5F);
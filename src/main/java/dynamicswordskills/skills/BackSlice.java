@@ -27,6 +27,7 @@ import dynamicswordskills.network.bidirectional.ActivateSkillPacket;
 import dynamicswordskills.network.server.EndComboPacket;
 import dynamicswordskills.ref.Config;
 import dynamicswordskills.ref.ModSounds;
+import dynamicswordskills.util.MutableVec3;
 import dynamicswordskills.util.PlayerUtils;
 import dynamicswordskills.util.TargetUtils;
 import net.minecraft.client.Minecraft;
@@ -43,7 +44,6 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.SoundCategory;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
@@ -80,6 +80,10 @@ public class BackSlice extends SkillActive
 	/** Used client side to get an extra renderTick for the targeting camera */
 	private SkillActive targetingSkill;
 
+	/** Reusable look vector for the per-frame circling movement; only used client side */
+	@SideOnly(Side.CLIENT)
+	private MutableVec3 look;
+
 	public BackSlice(String name) {
 		super(name);
 	}
@@ -242,6 +246,11 @@ public class BackSlice extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive() || ticksTilFail > 0;
+	}
+
 	@Override
 	@SideOnly(Side.CLIENT)
 	public boolean isAnimating() {
@@ -264,7 +273,10 @@ public class BackSlice extends SkillActive
 			if (player.isInWater() || player.isInLava()) {
 				d *= 0.15D;
 			}
-			Vec3d vec3 = player.getLookVec();
+			if (look == null) {
+				look = new MutableVec3();
+			}
+			MutableVec3 vec3 = look.setLook(player);
 			if (keyPressed == DSSKeyHandler.keys[DSSKeyHandler.KEY_RIGHT] || keyPressed == Minecraft.getMinecraft().gameSettings.keyBindRight) {
 				player.addVelocity(-vec3.z * d, 0.0D, vec3.x * d);
 			} else {
@@ -275,6 +287,11 @@ public class BackSlice extends SkillActive
 		return false; // allow camera to update again
 	}
 
+	@Override
+	public int getListenerHooks() {
+		return HOOK_BEING_ATTACKED | HOOK_POST_IMPACT;
+	}
+
 	@Override
 	public boolean onBeingAttacked(EntityPlayer player, DamageSource source) {
 		ILockOnTarget targeting = DSSPlayerInfo.get(player).getTargetingSkill();
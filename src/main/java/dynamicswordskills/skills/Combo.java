@@ -18,15 +18,18 @@
 package dynamicswordskills.skills;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
+import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.network.PacketDispatcher;
 import dynamicswordskills.network.client.UpdateComboPacket;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
@@ -45,18 +48,29 @@ import net.minecraftforge.fml.relauncher.SideOnly;
  * Each instance should be updated every tick from within its containing class' update method 
  * Determining when to add damage or end the combo prematurely must be handled extraneously.
  * Only self-synchronizing when UpdateComboPacket class is kept up-to-date 
+ * 
+ * Synchronization:
+ * The client receives the whole combo once when it starts, then only a stream of events
+ * (hits, damage and the end marker), at most one packet per tick. Each event advances the
+ * combo's sequence number, and a client that finds a gap asks for the whole combo again.
  *
  */
 public class Combo
 {
+	/** Event types in the combo update stream */
+	public static final byte EVENT_HIT = 0, EVENT_DAMAGE = 1, EVENT_END = 2;
+
+	/** Source of each combo's initial sequence number, so a stale client combo is unlikely to match */
+	private static final Random SEQUENCE_SEED = new Random();
+
 	/** Used only to get correct Skill class from player during update */
-	private final byte skillId;
+	private byte skillId;
 
 	/** Max combo size attainable by this instance of Combo */
-	private final int maxComboSize;
+	private int maxComboSize;
 
 	/** Upon landing a blow, the combo timer is set to this damage */
-	private final int timeLimit;
+	private int timeLimit;
 
 	/** Current combo timer; combo ends when timer reaches zero. */
 	private int comboTimer = 0;
@@ -64,8 +78,11 @@ public class Combo
 	/** Set to true when endCombo method is called */
 	private boolean isFinished = false;
 
-	/** List stores each hit's damage; combo size is inherent in the list */
-	private final List<Float> damageList = new ArrayList<Float>();
+	/** Ring buffer of each hit's damage, sized to the max combo size so it never wraps in practice */
+	private float[] damages;
+
+	/** Current number of hits */
+	private int numHits;
 
 	/** Running total of damage inflicted during a combo */
 	private float comboDamage = 0.0F;
@@ -79,6 +96,18 @@ public class Combo
 	/** Total number of consecutive hits on the same target entity */
 	private int consecutiveHits = 0;
 
+	/** Number of events applied to this combo, offset by a random start; used to detect missed updates */
+	private int sequence;
+
+	/** Events since the last update sent to the client; server side only */
+	private byte[] pendingTypes;
+	private float[] pendingValues;
+	private int[] pendingEntityIds;
+	private int pendingCount;
+
+	/** Whether the client needs the whole combo rather than just the pending events; server side only */
+	private boolean needsFullSync;
+
 	/**
 	 * Constructs a new Combo with specified max combo size and time limit and sends an update
 	 * packet to the client player with the new Combo instance.
@@ -90,9 +119,9 @@ public class Combo
 		this.skillId = skill.getId();
 		this.maxComboSize = maxComboSize;
 		this.timeLimit = timeLimit;
-		if (player instanceof EntityPlayerMP) {
-			PacketDispatcher.sendTo(new UpdateComboPacket(this), (EntityPlayerMP) player);
-		}
+		this.damages = new float[Math.max(1, maxComboSize)];
+		this.sequence = SEQUENCE_SEED.nextInt();
+		requestFullSync(player);
 	}
 
 	/**
@@ -105,13 +134,38 @@ public class Combo
 		this.skillId = skillId;
 		this.maxComboSize = maxComboSize;
 		this.timeLimit = timeLimit;
+		this.damages = new float[Math.max(1, maxComboSize)];
+	}
+
+	/**
+	 * Resets this finished combo so it can be reused for the next combo of the same skill,
+	 * sending any updates still pending for the finished combo first; server side only
+	 */
+	public void restart(EntityPlayer player, int maxComboSize, int timeLimit) {
+		if (player instanceof EntityPlayerMP) {
+			flushSync((EntityPlayerMP) player);
+		}
+		this.maxComboSize = maxComboSize;
+		this.timeLimit = timeLimit;
+		if (damages.length < maxComboSize) {
+			damages = new float[maxComboSize];
+		}
+		numHits = 0;
+		comboTimer = 0;
+		isFinished = false;
+		comboDamage = 0.0F;
+		lastEntityHit = null;
+		entityId = -1;
+		consecutiveHits = 0;
+		sequence = SEQUENCE_SEED.nextInt();
+		requestFullSync(player);
 	}
 
 	/** Returns the skill id associated with this Combo */
 	public byte getSkill() { return skillId; }
 
 	/** Returns current number of hits */
-	public int getNumHits() { return damageList.size(); }
+	public int getNumHits() { return numHits; }
 
 	/** Returns maximum number of hits allowed before the combo self-terminates */
 	public int getMaxNumHits() { return maxComboSize; }
@@ -119,8 +173,32 @@ public class Combo
 	/** Returns current damage total for this combo */
 	public float getDamage() { return comboDamage; }
 
-	/** Returns a copy of the current damage list */
-	public List<Float> getDamageList() { return Collections.unmodifiableList(damageList); }
+	/**
+	 * Returns the damage dealt by the hit at the given index, from 0 to {@link #getNumHits()} - 1;
+	 * only the most recent {@link #getMaxNumHits()} hits are kept, which is all of them for a valid combo
+	 */
+	public float getHitDamage(int index) {
+		return damages[index % damages.length];
+	}
+
+	/**
+	 * Returns a new list of each hit's damage
+	 * @deprecated Allocates a new list; use {@link #getNumHits()} and {@link #getHitDamage(int)} instead
+	 */
+	@Deprecated
+	public List<Float> getDamageList() {
+		List<Float> list = new ArrayList<Float>(numHits);
+		for (int i = Math.max(0, numHits - damages.length); i < numHits; ++i) {
+			list.add(getHitDamage(i));
+		}
+		return list;
+	}
+
+	/** Records a hit's damage, overwriting the oldest if the buffer is full */
+	private void addHitDamage(float damage) {
+		damages[numHits % damages.length] = damage;
+		++numHits;
+	}
 
 	/** Returns the last entity directly hit during the combo */
 	public Entity getLastEntityHit() { return lastEntityHit; }
@@ -161,11 +239,9 @@ public class Combo
 				lastEntityHit = target;
 				consecutiveHits = (target != null ? 1 : 0);
 			}
-			damageList.add(damage);
+			addHitDamage(damage);
 			comboDamage += damage;
-			if (player instanceof EntityPlayerMP) {
-				PacketDispatcher.sendTo(new UpdateComboPacket(this), (EntityPlayerMP) player);
-			}
+			queueEvent(player, EVENT_HIT, damage, (target != null ? target.getEntityId() : -1));
 			if (getNumHits() == maxComboSize) {
 				endCombo(player);
 			} else {
@@ -185,9 +261,7 @@ public class Combo
 			if (getNumHits() == 0) {
 				comboTimer = timeLimit;
 			}
-			if (player instanceof EntityPlayerMP) {
-				PacketDispatcher.sendTo(new UpdateComboPacket(this), (EntityPlayerMP) player);
-			}
+			queueEvent(player, EVENT_DAMAGE, damage, -1);
 		}
 	}
 
@@ -199,18 +273,150 @@ public class Combo
 			isFinished = true;
 			lastEntityHit = null;
 			consecutiveHits = 0;
-			if (player instanceof EntityPlayerMP) {
-				PacketDispatcher.sendTo(new UpdateComboPacket(this), (EntityPlayerMP) player);
+			queueEvent(player, EVENT_END, 0.0F, -1);
+		}
+	}
+
+	/**
+	 * Records an event for the next update sent to the client and advances the sequence number
+	 */
+	private void queueEvent(EntityPlayer player, byte type, float value, int entityId) {
+		++sequence;
+		if (player instanceof EntityPlayerMP) {
+			if (pendingTypes == null) {
+				pendingTypes = new byte[4];
+				pendingValues = new float[4];
+				pendingEntityIds = new int[4];
+			} else if (pendingCount == pendingTypes.length) {
+				pendingTypes = Arrays.copyOf(pendingTypes, pendingCount * 2);
+				pendingValues = Arrays.copyOf(pendingValues, pendingCount * 2);
+				pendingEntityIds = Arrays.copyOf(pendingEntityIds, pendingCount * 2);
 			}
+			pendingTypes[pendingCount] = type;
+			pendingValues[pendingCount] = value;
+			pendingEntityIds[pendingCount] = entityId;
+			++pendingCount;
+			DSSPlayerInfo.get(player).queueComboSync(this);
 		}
 	}
 
+	/**
+	 * Schedules the whole combo to be sent to the client with the next update, e.g. when
+	 * the combo starts or the client reports a gap in the update stream; server side only
+	 */
+	public void requestFullSync(EntityPlayer player) {
+		if (player instanceof EntityPlayerMP) {
+			needsFullSync = true;
+			DSSPlayerInfo.get(player).queueComboSync(this);
+		}
+	}
+
+	/**
+	 * Sends the whole combo or the pending events to the client, if either is waiting; called once per tick
+	 */
+	public void flushSync(EntityPlayerMP player) {
+		if (needsFullSync || pendingCount > 0) {
+			PacketDispatcher.sendTo(new UpdateComboPacket(this, needsFullSync), player);
+			needsFullSync = false;
+			pendingCount = 0;
+		}
+	}
+
+	/**
+	 * Writes the events since the last update, preceded by the sequence number they start from
+	 */
+	public void writePendingEvents(PacketBuffer buffer) {
+		buffer.writeInt(sequence - pendingCount);
+		buffer.writeVarInt(pendingCount);
+		for (int i = 0; i < pendingCount; ++i) {
+			buffer.writeByte(pendingTypes[i]);
+			buffer.writeFloat(pendingValues[i]);
+			buffer.writeInt(pendingEntityIds[i]);
+		}
+	}
+
+	/**
+	 * Applies events read by {@link UpdateComboPacket} in the same way the server applied them
+	 * @param baseSequence	Sequence number of this combo before the first event
+	 * @return false if the events do not follow on from this combo's current state, in which case none are applied
+	 */
+	@SideOnly(Side.CLIENT)
+	public boolean applyEvents(World world, int baseSequence, int count, byte[] types, float[] values, int[] entityIds) {
+		if (baseSequence != sequence) {
+			return false;
+		}
+		for (int i = 0; i < count; ++i) {
+			switch (types[i]) {
+			case EVENT_HIT:
+				if (entityIds[i] != -1 && entityIds[i] == entityId) {
+					++consecutiveHits;
+				} else {
+					entityId = entityIds[i];
+					consecutiveHits = (entityId != -1 ? 1 : 0);
+				}
+				addHitDamage(values[i]);
+				comboDamage += values[i];
+				break;
+			case EVENT_DAMAGE:
+				comboDamage += values[i];
+				break;
+			case EVENT_END:
+				isFinished = true;
+				entityId = -1;
+				consecutiveHits = 0;
+				break;
+			}
+			++sequence;
+		}
+		getEntityFromWorld(world);
+		return true;
+	}
+
+	/**
+	 * Writes the whole combo in the binary form read by {@link #readSnapshot}
+	 */
+	public void writeSnapshot(PacketBuffer buffer) {
+		buffer.writeByte(skillId);
+		buffer.writeVarInt(maxComboSize);
+		buffer.writeVarInt(timeLimit);
+		buffer.writeInt(sequence);
+		int first = Math.max(0, numHits - damages.length);
+		buffer.writeVarInt(numHits);
+		buffer.writeVarInt(numHits - first);
+		for (int i = first; i < numHits; ++i) {
+			buffer.writeFloat(getHitDamage(i));
+		}
+		buffer.writeFloat(comboDamage);
+		buffer.writeInt(lastEntityHit != null ? lastEntityHit.getEntityId() : -1);
+		buffer.writeVarInt(consecutiveHits);
+		buffer.writeBoolean(isFinished);
+	}
+
+	/**
+	 * Creates a new combo from the data written by {@link #writeSnapshot}
+	 */
+	public static final Combo readSnapshot(PacketBuffer buffer) {
+		Combo combo = new Combo(buffer.readByte(), buffer.readVarInt(), buffer.readVarInt());
+		combo.sequence = buffer.readInt();
+		int size = buffer.readVarInt();
+		int stored = buffer.readVarInt();
+		combo.numHits = size - stored;
+		for (int i = 0; i < stored; ++i) {
+			combo.addHitDamage(buffer.readFloat());
+		}
+		combo.comboDamage = buffer.readFloat();
+		combo.entityId = buffer.readInt();
+		combo.consecutiveHits = buffer.readVarInt();
+		combo.isFinished = buffer.readBoolean();
+		return combo;
+	}
+
 	/**
 	 * Attempts to set the last entity hit after loading from NBT; use from update packet
 	 */
 	@SideOnly(Side.CLIENT)
 	public void getEntityFromWorld(World world) {
-		lastEntityHit = world.getEntityByID(entityId);
+		lastEntityHit = (entityId != -1 ? world.getEntityByID(entityId) : null);
 	}
 
 	/**
@@ -222,11 +428,11 @@ public class Combo
 		compound.setInteger("MaxSize", maxComboSize);
 		compound.setInteger("TimeLimit", timeLimit);
 		compound.setInteger("CurrentSize", getNumHits());
-		for (int i = 0; i < getNumHits(); ++i) {
-			compound.setFloat("Dmg" + i, damageList.get(i));
+		for (int i = Math.max(0, numHits - damages.length); i < numHits; ++i) {
+			compound.setFloat("Dmg" + i, getHitDamage(i));
 		}
 		compound.setFloat("TotalDamage", comboDamage);
-		compound.setInteger("EntityId", (lastEntityHit != null ? lastEntityHit.getEntityId() : 0));
+		compound.setInteger("EntityId", (lastEntityHit != null ? lastEntityHit.getEntityId() : -1));
 		compound.setInteger("ConsecutiveHits", consecutiveHits);
 		compound.setBoolean("Finished", isFinished);
 		return compound;
@@ -239,10 +445,10 @@ public class Combo
 		Combo combo = new Combo(compound.getByte("SkillID"), compound.getInteger("MaxSize"), compound.getInteger("TimeLimit"));
 		int size = compound.getInteger("CurrentSize");
 		for (int i = 0; i < size; ++i) {
-			combo.damageList.add(compound.getFloat("Dmg" + i));
+			combo.addHitDamage(compound.getFloat("Dmg" + i));
 		}
 		combo.comboDamage = compound.getFloat("TotalDamage");
-		combo.entityId = compound.getInteger("EntityId");
+		combo.entityId = (compound.hasKey("EntityId") ? compound.getInteger("EntityId") : -1);
 		combo.consecutiveHits = compound.getInteger("ConsecutiveHits");
 		combo.isFinished = compound.getBoolean("Finished");
 		return combo;
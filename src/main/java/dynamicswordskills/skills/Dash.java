@@ -26,6 +26,8 @@ import dynamicswordskills.network.bidirectional.ActivateSkillPacket;
 import dynamicswordskills.network.server.DashImpactPacket;
 import dynamicswordskills.ref.Config;
 import dynamicswordskills.ref.ModSounds;
+import dynamicswordskills.util.ImpactResult;
+import dynamicswordskills.util.MutableVec3;
 import dynamicswordskills.util.PlayerUtils;
 import dynamicswordskills.util.TargetUtils;
 import net.minecraft.client.Minecraft;
@@ -77,7 +79,15 @@ public class Dash extends SkillActive
 	 * shrinking as the player nears the target; as a bonus, Dash is no longer 'homing'
 	 */
 	@SideOnly(Side.CLIENT)
-	private Vec3d trajectory;
+	private MutableVec3 trajectory;
+
+	/** Whether the trajectory is set; cleared upon impact so player doesn't keep moving forward */
+	@SideOnly(Side.CLIENT)
+	private boolean hasTrajectory;
+
+	/** Reusable hit record for client-side impact checks, created when first needed */
+	@SideOnly(Side.CLIENT)
+	private ImpactResult impact;
 
 	/** Player's starting position is used to determine actual distance traveled upon impact */
 	private Vec3d initialPosition;
@@ -196,7 +206,11 @@ public class Dash extends SkillActive
 			double d0 = (target.posX - player.posX);
 			double d1 = (target.posY + (double)(target.height / 3.0F) - player.posY);
 			double d2 = (target.posZ - player.posZ);
-			trajectory = new Vec3d(d0, d1, d2).normalize();
+			if (trajectory == null) {
+				trajectory = new MutableVec3();
+			}
+			trajectory.set(d0, d1, d2).normalize();
+			hasTrajectory = true;
 		}
 		return isActive();
 	}
@@ -221,17 +235,20 @@ public class Dash extends SkillActive
 			// Only check for impact on the client, as the server is not reliable for this step
 			// If a collision is detected, DashImpactPacket is sent to conclude the server-side
 			if (player.getEntityWorld().isRemote) {
-				RayTraceResult result = TargetUtils.checkForImpact(player.getEntityWorld(), player, player, 0.5D, false);
-				if (result != null) {
-					PacketDispatcher.sendToServer(new DashImpactPacket(player, result));
+				if (impact == null) {
+					impact = new ImpactResult();
+				}
+				if (TargetUtils.checkForImpact(player.getEntityWorld(), player, player, 0.5D, false, impact)) {
+					PacketDispatcher.sendToServer(new DashImpactPacket(player, impact));
 					player.resetCooldown(); // player effectively made an attack
 					impactTime = 5;
-					if (result.typeOfHit == RayTraceResult.Type.ENTITY) {
-						target = result.entityHit;
+					if (impact.typeOfHit == RayTraceResult.Type.ENTITY) {
+						target = impact.entityHit;
 					}
+					impact.reset(); // don't hold on to the entity hit
 					double d = Math.sqrt((player.motionX * player.motionX) + (player.motionZ * player.motionZ));
 					player.setVelocity(-player.motionX * d, 0.15D * d, -player.motionZ * d);
-					trajectory = null; // set to null so player doesn't keep moving forward
+					hasTrajectory = false; // so player doesn't keep moving forward
 					setNotDashing();
 				}
 			}
@@ -243,6 +260,11 @@ public class Dash extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive || impactTime > 0;
+	}
+
 	/**
 	 * Called on the server from {@link DashImpactPacket} to process the impact data from the client
 	 * @param player	Player's motionX and motionZ have been set by the packet, so the values may be used
@@ -287,7 +309,7 @@ public class Dash extends SkillActive
 	@Override
 	@SideOnly(Side.CLIENT)
 	public boolean onRenderTick(EntityPlayer player, float partialTickTime) {
-		if (target instanceof EntityLivingBase && trajectory != null) {
+		if (target instanceof EntityLivingBase && hasTrajectory) {
 			double speed = player.getAttributeMap().getAttributeInstance(SharedMonsterAttributes.MOVEMENT_SPEED).getAttributeValue() - BASE_MOVE;
 			double dfactor = (1.0D + (speed) + (speed * (1.0D - ((getRange() - distance) / getRange()))));
 			player.motionX = trajectory.x * dfactor * dfactor;
@@ -296,6 +318,11 @@ public class Dash extends SkillActive
 		return false; // this skill doesn't need to control the camera
 	}
 
+	@Override
+	public int getListenerHooks() {
+		return HOOK_BEING_ATTACKED;
+	}
+
 	@Override
 	public boolean onBeingAttacked(EntityPlayer player, DamageSource source) {
 		if (impactTime > 0 && source.getTrueSource() == target) {
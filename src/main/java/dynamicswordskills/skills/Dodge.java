@@ -25,6 +25,7 @@ import dynamicswordskills.network.PacketDispatcher;
 import dynamicswordskills.network.bidirectional.ActivateSkillPacket;
 import dynamicswordskills.ref.Config;
 import dynamicswordskills.ref.ModSounds;
+import dynamicswordskills.util.MutableVec3;
 import dynamicswordskills.util.PlayerUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.settings.KeyBinding;
@@ -33,7 +34,6 @@ import net.minecraft.entity.SharedMonsterAttributes;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.SoundCategory;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
@@ -72,6 +72,10 @@ public class Dodge extends SkillActive
 	/** Entity dodged, since the attack event may fire multiple times in quick succession for mobs like zombies */
 	private Entity entityDodged;
 
+	/** Reusable look vector for the per-frame dodge movement; only used client side */
+	@SideOnly(Side.CLIENT)
+	private MutableVec3 look;
+
 	public Dodge(String name) {
 		super(name);
 	}
@@ -193,6 +197,11 @@ public class Dodge extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive() || ticksTilFail > 0;
+	}
+
 	@Override
 	@SideOnly(Side.CLIENT)
 	public boolean isAnimating() {
@@ -208,7 +217,10 @@ public class Dodge extends SkillActive
 		}
 		// TODO reduce speed in liquids?
 		double d = 0.15D * speed * speed;
-		Vec3d vec3 = player.getLookVec();
+		if (look == null) {
+			look = new MutableVec3();
+		}
+		MutableVec3 vec3 = look.setLook(player);
 		if (keyPressed == DSSKeyHandler.keys[DSSKeyHandler.KEY_RIGHT] || keyPressed == Minecraft.getMinecraft().gameSettings.keyBindRight) {
 			player.addVelocity(-vec3.z * d, 0.0D, vec3.x * d);
 		} else {
@@ -217,6 +229,11 @@ public class Dodge extends SkillActive
 		return true;
 	}
 
+	@Override
+	public int getListenerHooks() {
+		return HOOK_BEING_ATTACKED;
+	}
+
 	@Override
 	public boolean onBeingAttacked(EntityPlayer player, DamageSource source) {
 		if (dodgeTimer > level) { // still able to dodge (used to use isActive(), but changed for animating)
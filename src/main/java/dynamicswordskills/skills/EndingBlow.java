@@ -230,6 +230,11 @@ public class EndingBlow extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive() || ticksTilFail > 0 || lastNumHits > 0;
+	}
+
 	/**
 	 * Checks if entity hit is dead, granting Xp or causing defensive penalty
 	 */
@@ -254,6 +259,11 @@ public class EndingBlow extends SkillActive
 		xp = 0;
 	}
 
+	@Override
+	public int getListenerHooks() {
+		return HOOK_POST_IMPACT;
+	}
+
 	@Override
 	public float postImpact(EntityPlayer player, EntityLivingBase entity, float amount) {
 		activeTimer = 0;
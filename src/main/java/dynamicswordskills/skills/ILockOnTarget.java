@@ -19,8 +19,6 @@ package dynamicswordskills.skills;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraftforge.fml.relauncher.Side;
-import net.minecraftforge.fml.relauncher.SideOnly;
 
 /**
  * 
@@ -39,8 +37,10 @@ public interface ILockOnTarget
 	/** Should only use on the server side */
 	public void setCurrentTarget(EntityPlayer player, Entity entity);
 
-	/** Should find and return the next valid target or null */
-	@SideOnly(Side.CLIENT)
+	/**
+	 * Should find and return the next valid target or null; called on the client, or on
+	 * the server when {@link dynamicswordskills.ref.Config#isServerTargeting()} is enabled
+	 */
 	public void getNextTarget(EntityPlayer player);
 
 }
@@ -164,11 +164,18 @@ public class LeapingBlow extends SkillActive
 		}
 	}
 
-	/**
-	 * Called from Forge fall Events (note that these are not fired if player lands in liquid!)
-	 * @param distance distance fallen, passed from Forge fall Event
-	 */
-	public void onImpact(EntityPlayer player, float distance) {
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive();
+	}
+
+	@Override
+	public int getListenerHooks() {
+		return HOOK_FALL;
+	}
+
+	@Override
+	public void onFall(EntityPlayer player, float distance) {
 		SwordBasic swordSkill = (SwordBasic) DSSPlayerInfo.get(player).getPlayerSkill(swordBasic);
 		if (isActive() && swordSkill != null && swordSkill.isActive() && PlayerUtils.isSwordOrProvider(player.getHeldItemMainhand(), this)) {
 			if (player.getEntityWorld().isRemote) {
@@ -134,13 +134,7 @@ public class MortalDraw extends SkillActive
 	public boolean canUse(EntityPlayer player) {
 		swordSlot = -1;
 		if (super.canUse(player) && player.getHeldItemMainhand().isEmpty() && attackTimer == 0) {
-			for (int i = 0; i < 9; ++i) {
-				ItemStack stack = player.inventory.getStackInSlot(i);
-				if (PlayerUtils.isSwordOrProvider(stack, this)) {
-					swordSlot = i;
-					break;
-				}
-			}
+			swordSlot = DSSPlayerInfo.get(player).getHotbarIndex().getSwordOrProviderSlot(getId());
 		}
 		return swordSlot > -1;
 	}
@@ -195,6 +189,16 @@ public class MortalDraw extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return attackTimer > 0;
+	}
+
+	@Override
+	public int getListenerHooks() {
+		return HOOK_BEING_ATTACKED | HOOK_IMPACT;
+	}
+
 	@Override
 	public boolean onBeingAttacked(EntityPlayer player, DamageSource source) {
 		if (!player.getEntityWorld().isRemote && source.getTrueSource() != null) {
@@ -218,6 +222,7 @@ public class MortalDraw extends SkillActive
 	/**
 	 * Call upon landing a mortal draw blow
 	 */
+	@Override
 	public void onImpact(EntityPlayer player, LivingHurtEvent event) {
 		// need to check time again, due to 2-tick delay for damage prevention
 		if (attackTimer > DELAY) {
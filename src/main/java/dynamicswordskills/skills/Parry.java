@@ -201,6 +201,16 @@ public class Parry extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive() || ticksTilFail > 0;
+	}
+
+	@Override
+	public int getListenerHooks() {
+		return HOOK_BEING_ATTACKED;
+	}
+
 	@Override
 	public boolean onBeingAttacked(EntityPlayer player, DamageSource source) {
 		if (source.getTrueSource() instanceof EntityLivingBase) {
@@ -164,6 +164,11 @@ public class RisingCut extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive() || ticksTilFail > 0;
+	}
+
 	@Override
 	@SideOnly(Side.CLIENT)
 	public boolean onRenderTick(EntityPlayer player, float partialTickTime) {
@@ -171,6 +176,11 @@ public class RisingCut extends SkillActive
 		return false;
 	}
 
+	@Override
+	public int getListenerHooks() {
+		return HOOK_POST_IMPACT;
+	}
+
 	/**
 	 * Call when an entity is damaged to flag the entity for velocity update next tick.
 	 * This is necessary because adding velocity right before the entity is damaged fails.
@@ -66,6 +66,21 @@ import net.minecraftforge.fml.relauncher.SideOnly;
  */
 public abstract class SkillActive extends SkillBase
 {
+	/** {@link #getListenerHooks Hook} flag for skills that implement {@link #onBeingAttacked} */
+	public static final int HOOK_BEING_ATTACKED = 1;
+
+	/** {@link #getListenerHooks Hook} flag for skills that implement {@link #onImpact} */
+	public static final int HOOK_IMPACT = 2;
+
+	/** {@link #getListenerHooks Hook} flag for skills that implement {@link #postImpact} */
+	public static final int HOOK_POST_IMPACT = 4;
+
+	/** {@link #getListenerHooks Hook} flag for skills that implement {@link #onFall} */
+	public static final int HOOK_FALL = 8;
+
+	/** Number of distinct hook flags */
+	public static final int NUM_HOOKS = 4;
+
 	/**
 	 * Constructs the first instance of a skill and stores it in the skill list
 	 * @param name	this is the unlocalized name and should not contain any spaces
@@ -280,6 +295,15 @@ public abstract class SkillActive extends SkillBase
 		return false;
 	}
 
+	/**
+	 * Returns the combat hooks this skill implements, as a combination of the HOOK_ flags;
+	 * while the skill is active, only these hooks are called for it. Skills overriding
+	 * any of the hook methods must return the corresponding flag.
+	 */
+	public int getListenerHooks() {
+		return 0;
+	}
+
 	/**
 	 * Called from LivingAttackEvent only if the skill is currently {@link #isActive() active}
 	 * @param player	The skill-using player under attack
@@ -300,7 +324,15 @@ public abstract class SkillActive extends SkillBase
 	 * @param player	The skill-using player inflicting damage (i.e. event.source.getEntity() is the player)
 	 * @param event		The hurt event may be canceled, damage amount modified, etc.
 	 */
-	//public void onImpact(EntityPlayer player, LivingHurtEvent event) {}
+	public void onImpact(EntityPlayer player, LivingHurtEvent event) {}
+
+	/**
+	 * Called from Forge fall events only if the skill is currently {@link #isActive() active}
+	 * (note that these are not fired if the player lands in liquid!)
+	 * @param player	The skill-using player that landed
+	 * @param distance	Distance fallen, passed from the Forge fall event
+	 */
+	public void onFall(EntityPlayer player, float distance) {}
 
 	/**
 	 * Called from LivingHurtEvent only if the skill is currently {@link #isActive() active}
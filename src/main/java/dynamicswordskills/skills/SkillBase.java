@@ -20,18 +20,14 @@ package dynamicswordskills.skills;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import dynamicswordskills.DynamicSwordSkills;
 import dynamicswordskills.api.ISkillProvider;
-import dynamicswordskills.network.PacketDispatcher;
-import dynamicswordskills.network.client.SyncSkillPacket;
+import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.ref.ModInfo;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
-import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.text.TextComponentTranslation;
@@ -51,8 +47,11 @@ public abstract class SkillBase
 	/** For convenience in providing initial id values */
 	private static byte skillIndex = 0;
 
-	/**  Map containing all registered skills */
-	private static final Map<Byte, SkillBase> skillsMap = new HashMap<Byte, SkillBase>();
+	/** Table containing all registered skills, indexed by id */
+	private static final SkillTable skillsMap = new SkillTable(16);
+
+	/** All registered skills in order of registration, for iteration */
+	private static final List<SkillBase> skillsList = new ArrayList<SkillBase>();
 
 	/** List of registered skills' unlocalized names, for use in Commands */
 	// if the skillsMap was keyed by unlocalized name, could just return the key set
@@ -95,11 +94,13 @@ public abstract class SkillBase
 		this.unlocalizedName = name;
 		this.id = skillIndex++;
 		if (register) {
-			if (skillsMap.containsKey(id)) {
+			SkillBase prev = skillsMap.put(this);
+			if (prev != null) {
 				DynamicSwordSkills.logger.warn("CONFLICT @ skill " + id + " id already occupied by "
-						+ skillsMap.get(id).unlocalizedName + " while adding " + name);
+						+ prev.unlocalizedName + " while adding " + name);
+				skillsList.remove(prev);
 			}
-			skillsMap.put(id, this);
+			skillsList.add(this);
 			skillNames.add(unlocalizedName);
 		}
 	}
@@ -115,22 +116,23 @@ public abstract class SkillBase
 
 	/** Returns true if the id provided is mapped to a skill */
 	public static final boolean doesSkillExist(int id) {
-		return (id >= 0 && id <= Byte.MAX_VALUE && skillsMap.containsKey((byte) id));
+		return (id <= Byte.MAX_VALUE && skillsMap.contains(id));
 	}
 
 	/** Returns a new instance of the skill with id, or null if it doesn't exist */
 	public static final SkillBase getNewSkillInstance(byte id) {
-		return (skillsMap.containsKey(id) ? skillsMap.get(id).newInstance() : null);
+		SkillBase skill = skillsMap.get(id);
+		return (skill == null ? null : skill.newInstance());
 	}
 
 	/** Returns the instance of the skill stored in the map if it exists, or null */
 	public static final SkillBase getSkill(int id) {
-		return (doesSkillExist(id) ? skillsMap.get((byte) id) : null);
+		return (id <= Byte.MAX_VALUE ? skillsMap.get(id) : null);
 	}
 
 	/** Returns an iterable collection of all the skills in the map */
 	public static final Collection<SkillBase> getSkills() {
-		return Collections.unmodifiableCollection(skillsMap.values());
+		return Collections.unmodifiableCollection(skillsList);
 	}
 
 	/** Returns the total number of registered skills */
@@ -138,6 +140,11 @@ public abstract class SkillBase
 		return skillsMap.size();
 	}
 
+	/** Returns the number of slots needed for a {@link SkillTable} to hold every registered skill id */
+	public static final int getSkillTableSize() {
+		return skillIndex;
+	}
+
 	/** Returns all registered skills' unlocalized names as an array */
 	public static final String[] getSkillNames() {
 		return skillNames.toArray(new String[skillNames.size()]);
@@ -402,15 +409,23 @@ public abstract class SkillBase
 			++level;
 			levelUp(player);
 		}
-		if (!player.getEntityWorld().isRemote && oldLevel < level) {
-			PacketDispatcher.sendTo(new SyncSkillPacket(this), (EntityPlayerMP) player);
-		}
 		return oldLevel < level;
 	}
 
 	/** This method should be called every update tick */
 	public void onUpdate(EntityPlayer player) {}
 
+	/**
+	 * Returns true while {@link #onUpdate} has work to do, e.g. a timer is running or the skill is active.
+	 * Once this returns false the player's skill scheduler stops updating the skill until it is woken
+	 * again, which happens automatically when the skill is activated or receives a key press; any other
+	 * code that starts a timer should call {@link DSSPlayerInfo#scheduleUpdate}.
+	 * @return Default returns TRUE so that skills not overriding this are updated every tick
+	 */
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return true;
+	}
+
 	/** Writes mutable data to NBT. */
 	public abstract void writeToNBT(NBTTagCompound compound);
 
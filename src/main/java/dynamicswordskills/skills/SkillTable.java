@@ -0,0 +1,158 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package dynamicswordskills.skills;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * Dense, id-indexed storage for skill instances. Each skill occupies the array slot
+ * matching its {@link SkillBase#getId() id}, and an occupancy bitmask allows iteration
+ * over only those slots that are filled, so lookups are a single array read with no
+ * boxing or hashing.
+ * 
+ * Iterate using {@link #nextId(int)}:
+ * <pre>
+ * for (int id = table.nextId(0); id > -1; id = table.nextId(id + 1)) {
+ *     SkillBase skill = table.get(id);
+ * }
+ * </pre>
+ *
+ */
+public class SkillTable
+{
+	/** Skill instances indexed by id */
+	private SkillBase[] skills;
+
+	/** Occupancy bitmask: bit (id & 63) of word (id >> 6) is set when a skill occupies that id */
+	private long[] mask;
+
+	/** Number of occupied slots */
+	private int size;
+
+	/** Incremented each time the table is modified */
+	private int modCount;
+
+	/**
+	 * @param capacity Initial number of slots, usually {@link SkillBase#getSkillTableSize()}
+	 */
+	public SkillTable(int capacity) {
+		this.skills = new SkillBase[Math.max(capacity, 1)];
+		this.mask = new long[(skills.length + 63) >> 6];
+	}
+
+	/** Returns the number of skills stored */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns a counter that changes each time a skill is stored or removed,
+	 * allowing callers to cache views derived from the table's contents
+	 */
+	public int getModCount() {
+		return modCount;
+	}
+
+	/** Returns true if no skills are stored */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** Returns true if a skill is stored for the id */
+	public boolean contains(int id) {
+		return id > -1 && id < skills.length && skills[id] != null;
+	}
+
+	/** Returns the skill stored for the id, or null */
+	public SkillBase get(int id) {
+		return (id > -1 && id < skills.length ? skills[id] : null);
+	}
+
+	/** Returns the level of the skill stored for the id, or 0 if there is none */
+	public byte getLevel(int id) {
+		SkillBase skill = get(id);
+		return (skill == null ? 0 : skill.getLevel());
+	}
+
+	/**
+	 * Stores the skill in the slot matching its id, replacing any previous occupant
+	 * @return The previous occupant, if any
+	 */
+	public SkillBase put(SkillBase skill) {
+		int id = skill.getId();
+		if (id >= skills.length) {
+			skills = Arrays.copyOf(skills, id + 1);
+			mask = Arrays.copyOf(mask, (skills.length + 63) >> 6);
+		}
+		SkillBase prev = skills[id];
+		if (prev == null) {
+			mask[id >> 6] |= (1L << id);
+			++size;
+		}
+		skills[id] = skill;
+		++modCount;
+		return prev;
+	}
+
+	/**
+	 * Removes the skill stored for the id, if any
+	 * @return The removed skill, or null
+	 */
+	public SkillBase remove(int id) {
+		SkillBase prev = get(id);
+		if (prev != null) {
+			skills[id] = null;
+			mask[id >> 6] &= ~(1L << id);
+			--size;
+			++modCount;
+		}
+		return prev;
+	}
+
+	/** Removes all skills */
+	public void clear() {
+		Arrays.fill(skills, null);
+		Arrays.fill(mask, 0L);
+		size = 0;
+		++modCount;
+	}
+
+	/**
+	 * Returns the first occupied id greater than or equal to the id given, or -1 if there are none
+	 */
+	public int nextId(int fromId) {
+		if (fromId < 0) {
+			fromId = 0;
+		}
+		int i = fromId >> 6;
+		if (i >= mask.length) {
+			return -1;
+		}
+		long word = mask[i] & (-1L << fromId);
+		while (true) {
+			if (word != 0) {
+				return (i << 6) + Long.numberOfTrailingZeros(word);
+			} else if (++i == mask.length) {
+				return -1;
+			}
+			word = mask[i];
+		}
+	}
+}
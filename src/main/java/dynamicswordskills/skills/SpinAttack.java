@@ -17,6 +17,7 @@
 
 package dynamicswordskills.skills;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import dynamicswordskills.client.DSSKeyHandler;
@@ -26,6 +27,8 @@ import dynamicswordskills.network.bidirectional.ActivateSkillPacket;
 import dynamicswordskills.network.server.RefreshSpinPacket;
 import dynamicswordskills.ref.Config;
 import dynamicswordskills.ref.ModSounds;
+import dynamicswordskills.util.EntitySpatialIndex;
+import dynamicswordskills.util.MutableVec3;
 import dynamicswordskills.util.PlayerUtils;
 import dynamicswordskills.util.TargetUtils;
 import net.minecraft.client.Minecraft;
@@ -35,7 +38,6 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.SoundCategory;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.relauncher.Side;
@@ -83,12 +85,20 @@ public class SpinAttack extends SkillActive
 	@SideOnly(Side.CLIENT)
 	private List<EntityLivingBase> targets;
 
+	/** Reusable list of entities in the path of the spin each render tick */
+	@SideOnly(Side.CLIENT)
+	private List<EntityLivingBase> lookTargets;
+
 	/** Whether flame particles should render along the sword's arc */
 	private boolean isFlaming;
 
 	/** The player's Super Spin Attack level will allow multiple spins and extended range */
 	private int superLevel;
 
+	/** Reusable look vector for spawning particles each tick; only used client side */
+	@SideOnly(Side.CLIENT)
+	private MutableVec3 look;
+
 	public SpinAttack(String name) {
 		super(name);
 	}
@@ -284,17 +294,26 @@ public class SpinAttack extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isCharging() || isActive();
+	}
+
 	@Override
 	@SideOnly(Side.CLIENT)
 	public boolean onRenderTick(EntityPlayer player, float partialTickTime) {
 		if (PlayerUtils.isWeapon(player.getHeldItemMainhand())) {
-			List<EntityLivingBase> list = TargetUtils.acquireAllLookTargets(player, (int)(getRange() + 0.5F), 1.0D);
+			if (lookTargets == null) {
+				lookTargets = new ArrayList<EntityLivingBase>();
+			}
+			List<EntityLivingBase> list = TargetUtils.acquireAllLookTargets(player, (int)(getRange() + 0.5F), 1.0D, lookTargets);
 			for (EntityLivingBase target : list) {
 				if (targets != null && targets.contains(target)) {
 					Minecraft.getMinecraft().playerController.attackEntity(player, target);
 					targets.remove(target);
 				}
 			}
+			list.clear();
 			spawnParticles(player);
 			DSSPlayerInfo.get(player).armSwing = 0.5F;
 			player.turn((clockwise ? getSpinSpeed() : -getSpinSpeed()), 0);
@@ -310,7 +329,7 @@ public class SpinAttack extends SkillActive
 	private void startSpin(World world, EntityPlayer player) {
 		++refreshed;
 		if (world.isRemote) {
-			targets = world.getEntitiesWithinAABB(EntityLivingBase.class, player.getEntityBoundingBox().expand(getRange(), 0.0D, getRange()));
+			targets = EntitySpatialIndex.getEntitiesWithinAABB(world, player.getEntityBoundingBox().expand(getRange(), 0.0D, getRange()));
 			if (targets.contains(player)) {
 				targets.remove(player);
 			}
@@ -340,7 +359,10 @@ public class SpinAttack extends SkillActive
 	private void spawnParticles(EntityPlayer player) {
 		// TODO these will not be seen by other players
 		EnumParticleTypes particle = (isFlaming ? EnumParticleTypes.FLAME : (superLevel > 0 ? EnumParticleTypes.CRIT_MAGIC : EnumParticleTypes.CRIT));
-		Vec3d vec3 = player.getLookVec();
+		if (look == null) {
+			look = new MutableVec3();
+		}
+		MutableVec3 vec3 = look.setLook(player);
 		double posX = player.posX + (vec3.x * getRange());
 		double posY = player.posY + player.getEyeHeight() - 0.1D;
 		double posZ = player.posZ + (vec3.z * getRange());
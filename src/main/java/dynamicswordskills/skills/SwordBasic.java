@@ -17,23 +17,34 @@
 
 package dynamicswordskills.skills;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
+import dynamicswordskills.entity.DSSPlayerInfo;
 import dynamicswordskills.entity.DirtyEntityAccessor;
 import dynamicswordskills.network.PacketDispatcher;
+import dynamicswordskills.network.client.SetTargetPacket;
 import dynamicswordskills.network.server.EndComboPacket;
+import dynamicswordskills.network.server.NextTargetPacket;
 import dynamicswordskills.network.server.TargetIdPacket;
 import dynamicswordskills.ref.Config;
 import dynamicswordskills.ref.ModSounds;
+import dynamicswordskills.util.EntitySpatialIndex;
 import dynamicswordskills.util.PlayerUtils;
 import dynamicswordskills.util.TargetUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.text.TextComponentTranslation;
 import net.minecraft.world.World;
 import net.minecraftforge.event.entity.living.LivingHurtEvent;
@@ -90,19 +101,45 @@ import swordskillsapi.api.damage.IComboDamage.IComboDamageFull;
  */
 public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 {
+	/** Ticks to wait before sending a target the client could not find, giving it time to start tracking the entity */
+	private static final int RESYNC_DELAY = 10;
+
 	/** True if this skill is currently active */
 	private boolean isActive = false;
 
 	/** The current target, if any; kept synchronized between the client and server */
 	private EntityLivingBase currentTarget = null;
 
-	/** The previous target; only used client side */
-	@SideOnly(Side.CLIENT)
+	/** The previous target; only used on the side selecting targets */
 	private EntityLivingBase prevTarget;
 
-	/** Set to a new instance each time a combo begins */
+	/** The target last sent to the client when targeting is server side; only used server side */
+	private EntityLivingBase syncedTarget;
+
+	/** Ticks until the target is sent again after the client could not find it; only used server side */
+	private int resyncTicks;
+
+	/**
+	 * Valid targets within lock-on range, nearest first, maintained each tick while locked on;
+	 * whether they can be seen is only checked when one is picked. Only used on the side selecting targets.
+	 */
+	private List<EntityLivingBase> candidates;
+
+	/** Same entities as the candidates list, for membership tests */
+	private Set<EntityLivingBase> candidateSet;
+
+	/** Squared distance to each candidate when it was last sorted */
+	private double[] candidateDistances;
+
+	/** Reusable list for entities found near the player */
+	private List<EntityLivingBase> nearby;
+
+	/** Current or most recent combo; reset for reuse each time a combo begins */
 	private Combo combo = null;
 
+	/** Finished combo kept for reuse after the current combo was cleared */
+	private Combo spareCombo = null;
+
 	public SwordBasic(String name) {
 		super(name);
 	}
@@ -172,7 +209,7 @@ public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 		} else { // otherwise activate
 			isActive = true;
 			if (!isComboInProgress()) {
-				combo = null;
+				setCombo(null);
 			}
 			currentTarget = TargetUtils.acquireLookTarget(player, getRange(), getRange(), true);
 		}
@@ -183,15 +220,29 @@ public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 	protected void onDeactivated(World world, EntityPlayer player) {
 		isActive = false;
 		currentTarget = null;
-		if (world.isRemote) {
-			prevTarget = null;
+		prevTarget = null;
+		syncedTarget = null;
+		resyncTicks = 0;
+		if (candidates != null) {
+			candidates.clear();
+			candidateSet.clear();
 		}
 	}
 
 	@Override
 	public void onUpdate(EntityPlayer player) {
 		if (isActive() && player.getEntityWorld().isRemote) {
-			if (Minecraft.getMinecraft().currentScreen != null  || !updateTargets(player)) {
+			// when targeting is server side, the server deactivates the skill once no target remains
+			if (Minecraft.getMinecraft().currentScreen != null  || (!Config.isServerTargeting() && !updateTargets(player))) {
+				deactivate(player);
+			}
+		} else if (isActive() && Config.isServerTargeting()) {
+			if (updateTargets(player)) {
+				if (resyncTicks > 0 && --resyncTicks == 0) {
+					syncedTarget = null;
+				}
+				syncTarget(player);
+			} else {
 				deactivate(player);
 			}
 		}
@@ -200,6 +251,11 @@ public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive() || isComboInProgress();
+	}
+
 	@Override
 	@SideOnly(Side.CLIENT)
 	public boolean onRenderTick(EntityPlayer player, float partialTickTime) {
@@ -240,24 +296,20 @@ public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 	 * Returns the next closest new target or locks on to the previous target, if any
 	 */
 	@Override
-	@SideOnly(Side.CLIENT)
 	public final void getNextTarget(EntityPlayer player) {
+		if (player.getEntityWorld().isRemote && Config.isServerTargeting()) {
+			PacketDispatcher.sendToServer(new NextTargetPacket());
+			return;
+		}
+		if (candidates == null || candidates.isEmpty()) {
+			updateCandidates(player);
+		}
 		EntityLivingBase nextTarget = null;
-		double dTarget = 0;
-		List<EntityLivingBase> list = TargetUtils.acquireAllLookTargets(player, getRange(), getRange());
-		for (EntityLivingBase entity : list) {
-			if (entity == player) { continue; }
-			if (entity != currentTarget && entity != prevTarget && isTargetValid(player, entity)) {
-				if (nextTarget == null) {
-					dTarget = player.getDistanceSq(entity);
-					nextTarget = entity;
-				} else {
-					double distance = player.getDistanceSq(entity);
-					if (distance < dTarget) {
-						nextTarget = entity;
-						dTarget = distance;
-					}
-				}
+		for (int i = 0; i < candidates.size() && nextTarget == null; ++i) {
+			EntityLivingBase entity = candidates.get(i);
+			// candidates may have moved out of view since they entered range
+			if (entity != currentTarget && entity != prevTarget && isTargetValid(player, entity) && TargetUtils.isTargetInSight(player, entity)) {
+				nextTarget = entity;
 			}
 		}
 		if (nextTarget != null) {
@@ -268,35 +320,107 @@ public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 			currentTarget = prevTarget;
 			prevTarget = nextTarget;
 		}
-		PacketDispatcher.sendToServer(new TargetIdPacket(this));
+		if (player.getEntityWorld().isRemote) {
+			PacketDispatcher.sendToServer(new TargetIdPacket(this));
+		} else if (isTargetValid(player, currentTarget)) {
+			syncTarget(player);
+		}
+	}
+
+	/**
+	 * Called when the client could not find the target last sent, e.g. because it was not tracking
+	 * the entity yet, to send the current target again after a short delay; server side only
+	 */
+	public void requestTargetSync() {
+		resyncTicks = RESYNC_DELAY;
+	}
+
+	/**
+	 * Sends the current target to the client if it changed since it was last sent; server side only
+	 */
+	private void syncTarget(EntityPlayer player) {
+		if (currentTarget != syncedTarget && player instanceof EntityPlayerMP) {
+			syncedTarget = currentTarget;
+			PacketDispatcher.sendTo(new SetTargetPacket(currentTarget), (EntityPlayerMP) player);
+		}
 	}
 
 	/**
 	 * Updates targets, setting to null if no longer valid and acquiring new target if necessary
 	 * @return returns true if the current target is valid
 	 */
-	@SideOnly(Side.CLIENT)
 	private boolean updateTargets(EntityPlayer player) {
+		updateCandidates(player);
 		if (!isTargetValid(player, prevTarget) || !TargetUtils.isTargetInSight(player, prevTarget)) {
 			prevTarget = null;
 		}
 		if (!isTargetValid(player, currentTarget)) {
 			currentTarget = null;
-			if (Config.autoTargetEnabled()) {
+			if (DSSPlayerInfo.get(player).isAutoTargetEnabled()) {
 				getNextTarget(player);
 			}
 		}
 		return isTargetValid(player, currentTarget);
 	}
 
+	/**
+	 * Drops candidates that died or left lock-on range, adds valid entities that entered it
+	 * from the world's {@link EntitySpatialIndex}, and sorts the candidates nearest first
+	 */
+	private void updateCandidates(EntityPlayer player) {
+		if (candidates == null) {
+			candidates = new ArrayList<EntityLivingBase>();
+			candidateSet = Collections.newSetFromMap(new IdentityHashMap<EntityLivingBase, Boolean>());
+			candidateDistances = new double[16];
+			nearby = new ArrayList<EntityLivingBase>();
+		}
+		for (int i = candidates.size() - 1; i > -1; --i) {
+			EntityLivingBase entity = candidates.get(i);
+			if (!isTargetValid(player, entity)) {
+				candidates.remove(i);
+				candidateSet.remove(entity);
+			}
+		}
+		AxisAlignedBB bb = player.getEntityBoundingBox().grow(getRange());
+		for (EntityLivingBase entity : EntitySpatialIndex.getEntitiesWithinAABB(player.getEntityWorld(), bb, nearby)) {
+			if (entity != player && entity.canBeCollidedWith() && !candidateSet.contains(entity) && isTargetValid(player, entity)) {
+				candidates.add(entity);
+				candidateSet.add(entity);
+			}
+		}
+		nearby.clear();
+		sortCandidates(player);
+	}
+
+	/**
+	 * Sorts the candidates by their current distance to the player, nearest first
+	 */
+	private void sortCandidates(EntityPlayer player) {
+		int size = candidates.size();
+		if (size > candidateDistances.length) {
+			candidateDistances = Arrays.copyOf(candidateDistances, Math.max(size, candidateDistances.length * 2));
+		}
+		for (int i = 0; i < size; ++i) {
+			EntityLivingBase entity = candidates.get(i);
+			// insertion sort: the order rarely changes much from one tick to the next
+			double distance = player.getDistanceSq(entity);
+			int j = i;
+			for (; j > 0 && candidateDistances[j - 1] > distance; --j) {
+				candidateDistances[j] = candidateDistances[j - 1];
+				candidates.set(j, candidates.get(j - 1));
+			}
+			candidateDistances[j] = distance;
+			candidates.set(j, entity);
+		}
+	}
+
 	/**
 	 * Returns true if target entity is valid: not dead and still within lock-on range
 	 */
-	@SideOnly(Side.CLIENT)
 	private boolean isTargetValid(EntityPlayer player, EntityLivingBase target) {
 		return (target != null && !target.isDead && target.getHealth() > 0F &&
 				player.getDistance(target) < (float) getRange() && !target.isInvisible() &&
-				(Config.canTargetPlayers() || !(target instanceof EntityPlayer)));
+				(DSSPlayerInfo.get(player).canTargetPlayers() || !(target instanceof EntityPlayer)));
 	}
 
 	@Override
@@ -306,6 +430,9 @@ public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 
 	@Override
 	public final void setCombo(Combo combo) {
+		if (combo == null && this.combo != null) {
+			spareCombo = this.combo;
+		}
 		this.combo = combo;
 	}
 
@@ -332,7 +459,15 @@ public class SwordBasic extends SkillActive implements ICombo, ILockOnTarget
 	public void onHurtTarget(EntityPlayer player, LivingHurtEvent event) {
 		if (!isLockedOn() || !isValidComboDamage(player, event.getSource())) { return; }
 		if (combo == null || combo.isFinished()) {
-			combo = new Combo(player, this, getMaxComboSize(), getComboTimeLimit());
+			if (combo == null) {
+				combo = spareCombo;
+				spareCombo = null;
+			}
+			if (combo != null) {
+				combo.restart(player, getMaxComboSize(), getComboTimeLimit());
+			} else {
+				combo = new Combo(player, this, getMaxComboSize(), getComboTimeLimit());
+			}
 		}
 		float damage = DirtyEntityAccessor.getModifiedDamage(event.getEntityLiving(), event.getSource(), event.getAmount());
 		if (damage > 0) {
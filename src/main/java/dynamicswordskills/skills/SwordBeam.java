@@ -174,6 +174,11 @@ public class SwordBeam extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return missTimer > 0;
+	}
+
 	/**
 	 * Call from {@link EntitySwordBeam#onImpact} to allow handling of ICombo;
 	 * striking an entity sets the missTimer to zero
@@ -181,6 +181,16 @@ public class SwordBreak extends SkillActive
 		}
 	}
 
+	@Override
+	public boolean hasPendingUpdate(EntityPlayer player) {
+		return isActive() || ticksTilFail > 0;
+	}
+
+	@Override
+	public int getListenerHooks() {
+		return HOOK_BEING_ATTACKED;
+	}
+
 	@Override
 	public boolean onBeingAttacked(EntityPlayer player, DamageSource source) {
 		if (source.getImmediateSource() instanceof EntityLivingBase) {
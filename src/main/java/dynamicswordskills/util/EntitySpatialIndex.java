@@ -0,0 +1,203 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.MapMaker;
+
+import dynamicswordskills.ref.Config;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.world.World;
+
+/**
+ * 
+ * Per-world spatial hash of the loaded {@link EntityLivingBase} entities, shared by all
+ * skill and projectile queries in that world.
+ * 
+ * The index is rebuilt lazily, at most once per world tick, when it is first queried.
+ * Entities are bucketed by the horizontal grid cell containing their position, and each
+ * query checks the live bounding box of every entity in the cells it covers, with a
+ * margin for entities that moved since the index was built. Entities spawned after the
+ * index was built are not found until the next tick.
+ * 
+ * Each index must only be used from the thread that owns its world.
+ *
+ */
+public class EntitySpatialIndex
+{
+	/** Cells are (1 << CELL_SHIFT) blocks wide */
+	private static final int CELL_SHIFT = 3;
+
+	/** Distance an entity may move after the index was built and still be found */
+	private static final double MOVEMENT_MARGIN = 4.0D;
+
+	/** One index per world, compared by identity; entries are removed by {@link #onWorldUnload} */
+	private static final Map<World, EntitySpatialIndex> INDICES = new MapMaker().weakKeys().makeMap();
+
+	/** World time at which the index was last built */
+	private long builtTime = Long.MIN_VALUE;
+
+	/** Number of entities indexed */
+	private int size;
+
+	private EntityLivingBase[] entities = new EntityLivingBase[64];
+
+	/** Cell coordinates of each entity */
+	private int[] cellX = new int[64];
+	private int[] cellZ = new int[64];
+
+	/** Index of the next entity in the same hash bucket, or -1 */
+	private int[] next = new int[64];
+
+	/** Index of the first entity in each hash bucket, or -1 */
+	private int[] buckets = new int[128];
+
+	/** Largest horizontal distance from any entity's position to the edge of its bounding box */
+	private double maxReach;
+
+	private EntitySpatialIndex() {}
+
+	/**
+	 * Returns a new list of the living entities whose bounding boxes intersect the given box,
+	 * excluding spectators, the same as {@link World#getEntitiesWithinAABB(Class, AxisAlignedBB)}
+	 */
+	public static List<EntityLivingBase> getEntitiesWithinAABB(World world, AxisAlignedBB bb) {
+		return getEntitiesWithinAABB(world, bb, new ArrayList<EntityLivingBase>());
+	}
+
+	/**
+	 * Adds the living entities whose bounding boxes intersect the given box to the list, which is cleared first
+	 * @return the list passed in
+	 */
+	public static List<EntityLivingBase> getEntitiesWithinAABB(World world, AxisAlignedBB bb, List<EntityLivingBase> list) {
+		list.clear();
+		if (!Config.useSpatialIndex()) {
+			list.addAll(world.getEntitiesWithinAABB(EntityLivingBase.class, bb));
+			return list;
+		}
+		EntitySpatialIndex index = INDICES.get(world);
+		if (index == null) {
+			index = new EntitySpatialIndex();
+			INDICES.put(world, index);
+		}
+		if (index.builtTime != world.getTotalWorldTime()) {
+			index.build(world);
+		}
+		index.query(bb, list);
+		return list;
+	}
+
+	/**
+	 * Discards the world's index, which would otherwise keep the world and its entities
+	 * reachable; call from {@link net.minecraftforge.event.world.WorldEvent.Unload}
+	 */
+	public static void onWorldUnload(World world) {
+		INDICES.remove(world);
+	}
+
+	private void build(World world) {
+		builtTime = world.getTotalWorldTime();
+		int previousSize = size;
+		size = 0;
+		maxReach = 0.0D;
+		for (Entity entity : world.loadedEntityList) {
+			if (entity instanceof EntityLivingBase && !entity.isDead) {
+				if (size == entities.length) {
+					int capacity = size * 2;
+					entities = Arrays.copyOf(entities, capacity);
+					cellX = Arrays.copyOf(cellX, capacity);
+					cellZ = Arrays.copyOf(cellZ, capacity);
+					next = Arrays.copyOf(next, capacity);
+				}
+				AxisAlignedBB bb = entity.getEntityBoundingBox();
+				maxReach = Math.max(maxReach, Math.max(Math.max(entity.posX - bb.minX, bb.maxX - entity.posX), Math.max(entity.posZ - bb.minZ, bb.maxZ - entity.posZ)));
+				entities[size] = (EntityLivingBase) entity;
+				cellX[size] = getCell(entity.posX);
+				cellZ[size] = getCell(entity.posZ);
+				++size;
+			}
+		}
+		if (size < previousSize) {
+			// Release entities that have since left the world
+			Arrays.fill(entities, size, previousSize, null);
+		}
+		int capacity = buckets.length;
+		while (capacity < size * 2) {
+			capacity *= 2;
+		}
+		if (capacity != buckets.length) {
+			buckets = new int[capacity];
+		}
+		Arrays.fill(buckets, -1);
+		for (int i = 0; i < size; ++i) {
+			int bucket = getBucket(cellX[i], cellZ[i]);
+			next[i] = buckets[bucket];
+			buckets[bucket] = i;
+		}
+		// don't hold on to entities removed from the world since the last build
+		Arrays.fill(entities, size, entities.length, null);
+	}
+
+	private void query(AxisAlignedBB bb, List<EntityLivingBase> list) {
+		double margin = maxReach + MOVEMENT_MARGIN;
+		int minX = getCell(bb.minX - margin);
+		int maxX = getCell(bb.maxX + margin);
+		int minZ = getCell(bb.minZ - margin);
+		int maxZ = getCell(bb.maxZ + margin);
+		if ((long)(maxX - minX + 1) * (maxZ - minZ + 1) > size) {
+			// the box covers more cells than there are entities
+			for (int i = 0; i < size; ++i) {
+				addIfIntersecting(entities[i], bb, list);
+			}
+			return;
+		}
+		for (int x = minX; x <= maxX; ++x) {
+			for (int z = minZ; z <= maxZ; ++z) {
+				for (int i = buckets[getBucket(x, z)]; i > -1; i = next[i]) {
+					if (cellX[i] == x && cellZ[i] == z) {
+						addIfIntersecting(entities[i], bb, list);
+					}
+				}
+			}
+		}
+	}
+
+	private static void addIfIntersecting(EntityLivingBase entity, AxisAlignedBB bb, List<EntityLivingBase> list) {
+		if (!entity.isDead && entity.getEntityBoundingBox().intersects(bb)
+				&& !(entity instanceof EntityPlayer && ((EntityPlayer) entity).isSpectator()))
+		{
+			list.add(entity);
+		}
+	}
+
+	private static int getCell(double coordinate) {
+		return ((int) Math.floor(coordinate)) >> CELL_SHIFT;
+	}
+
+	private int getBucket(int x, int z) {
+		int hash = x * 0x9E3779B1 + z * 0x85EBCA6B;
+		return (hash ^ (hash >>> 16)) & (buckets.length - 1);
+	}
+}
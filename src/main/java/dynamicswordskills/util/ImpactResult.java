@@ -0,0 +1,66 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.util;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * 
+ * Mutable hit record filled in by {@link TargetUtils#checkForImpact(net.minecraft.world.World, Entity, Entity, double, boolean, ImpactResult)},
+ * so that callers checking for impact every tick may reuse a single instance.
+ *
+ */
+public class ImpactResult
+{
+	/** Type of hit, MISS if nothing was struck */
+	public RayTraceResult.Type typeOfHit = RayTraceResult.Type.MISS;
+
+	/** The entity struck, if typeOfHit is ENTITY */
+	public Entity entityHit;
+
+	/** The block position and side struck, if typeOfHit is BLOCK */
+	public BlockPos blockPos;
+	public EnumFacing sideHit;
+
+	/** Point of impact */
+	public double hitX, hitY, hitZ;
+
+	/** Resets this record to a miss */
+	public void reset() {
+		typeOfHit = RayTraceResult.Type.MISS;
+		entityHit = null;
+		blockPos = null;
+		sideHit = null;
+		hitX = hitY = hitZ = 0.0D;
+	}
+
+	/**
+	 * Returns a new RayTraceResult equivalent to this record, or null if nothing was struck
+	 */
+	public RayTraceResult toRayTraceResult() {
+		switch (typeOfHit) {
+		case BLOCK: return new RayTraceResult(new Vec3d(hitX, hitY, hitZ), sideHit, blockPos);
+		case ENTITY: return new RayTraceResult(entityHit);
+		default: return null;
+		}
+	}
+}
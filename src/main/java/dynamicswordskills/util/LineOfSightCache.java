@@ -0,0 +1,170 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import dynamicswordskills.ref.Config;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+
+/**
+ * 
+ * Bounded cache of {@link EntityLivingBase#canEntityBeSeen} results, keyed by the pair of entity ids.
+ * 
+ * A result is reused for the rest of the world tick in which it was computed, and for up to
+ * {@link Config#getSightCacheTicks()} further ticks as long as neither entity's eye position
+ * has changed; block changes within that window are not detected.
+ * 
+ * Each thread has its own direct-mapped table, so the client and integrated server never
+ * share results; a new result simply replaces whatever occupied its slot.
+ *
+ */
+public class LineOfSightCache
+{
+	/** Number of bits used to index the table */
+	private static final int BITS = 10;
+
+	private static final int SIZE = 1 << BITS;
+
+	private static final ThreadLocal<LineOfSightCache> CACHE = new ThreadLocal<LineOfSightCache>() {
+		@Override
+		protected LineOfSightCache initialValue() {
+			return new LineOfSightCache();
+		}
+	};
+
+	private static final AtomicLong hits = new AtomicLong();
+
+	private static final AtomicLong misses = new AtomicLong();
+
+	/** Seeker and target entity ids of each entry, packed into one long */
+	private final long[] pairs = new long[SIZE];
+
+	/** Identity hash of the world each entry was computed in; 0 for empty slots */
+	private final int[] worlds = new int[SIZE];
+
+	/** World time at which each entry was computed */
+	private final long[] times = new long[SIZE];
+
+	/** Seeker and target eye positions of each entry, 6 values per entry */
+	private final double[] positions = new double[SIZE * 6];
+
+	private final boolean[] results = new boolean[SIZE];
+
+	private LineOfSightCache() {}
+
+	/**
+	 * Returns {@link EntityLivingBase#canEntityBeSeen seeker.canEntityBeSeen(target)}, reusing a recent result if possible
+	 */
+	public static boolean canEntityBeSeen(EntityLivingBase seeker, Entity target) {
+		return CACHE.get().canSee(seeker, target);
+	}
+
+	/** Returns the number of results reused from the cache since the game started or the counters were reset */
+	public static long getHits() {
+		return hits.get();
+	}
+
+	/** Returns the number of results that had to be computed since the game started or the counters were reset */
+	public static long getMisses() {
+		return misses.get();
+	}
+
+	/** Sets the hit and miss counters back to zero */
+	public static void resetCounters() {
+		hits.set(0);
+		misses.set(0);
+	}
+
+	/**
+	 * Returns the cached result for the pair if it may still be reused, without computing it
+	 * @return 1 if the target can be seen, 0 if not, or -1 if there is no usable result
+	 */
+	static int getCachedResult(EntityLivingBase seeker, Entity target) {
+		return CACHE.get().lookup(seeker, target);
+	}
+
+	/**
+	 * Stores a result computed elsewhere for the pair, e.g. by {@link ParallelLineOfSight}
+	 */
+	static void putResult(EntityLivingBase seeker, Entity target, boolean result) {
+		misses.incrementAndGet();
+		CACHE.get().store(seeker, target, result);
+	}
+
+	private boolean canSee(EntityLivingBase seeker, Entity target) {
+		int cached = lookup(seeker, target);
+		if (cached > -1) {
+			return cached == 1;
+		}
+		misses.incrementAndGet();
+		boolean result = seeker.canEntityBeSeen(target);
+		store(seeker, target, result);
+		return result;
+	}
+
+	private int lookup(EntityLivingBase seeker, Entity target) {
+		long pair = getPair(seeker, target);
+		int i = getSlot(pair);
+		int world = System.identityHashCode(seeker.getEntityWorld()) | 1;
+		long time = seeker.getEntityWorld().getTotalWorldTime();
+		double sx = seeker.posX;
+		double sy = seeker.posY + seeker.getEyeHeight();
+		double sz = seeker.posZ;
+		double tx = target.posX;
+		double ty = target.posY + target.getEyeHeight();
+		double tz = target.posZ;
+		int p = i * 6;
+		if (worlds[i] == world && pairs[i] == pair) {
+			long age = time - times[i];
+			if (age == 0 || (age > 0 && age <= Config.getSightCacheTicks()
+					&& positions[p] == sx && positions[p + 1] == sy && positions[p + 2] == sz
+					&& positions[p + 3] == tx && positions[p + 4] == ty && positions[p + 5] == tz))
+			{
+				hits.incrementAndGet();
+				return (results[i] ? 1 : 0);
+			}
+		}
+		return -1;
+	}
+
+	private void store(EntityLivingBase seeker, Entity target, boolean result) {
+		long pair = getPair(seeker, target);
+		int i = getSlot(pair);
+		int p = i * 6;
+		pairs[i] = pair;
+		worlds[i] = System.identityHashCode(seeker.getEntityWorld()) | 1;
+		times[i] = seeker.getEntityWorld().getTotalWorldTime();
+		positions[p] = seeker.posX;
+		positions[p + 1] = seeker.posY + seeker.getEyeHeight();
+		positions[p + 2] = seeker.posZ;
+		positions[p + 3] = target.posX;
+		positions[p + 4] = target.posY + target.getEyeHeight();
+		positions[p + 5] = target.posZ;
+		results[i] = result;
+	}
+
+	private static long getPair(Entity seeker, Entity target) {
+		return ((long) seeker.getEntityId() << 32) | (target.getEntityId() & 0xFFFFFFFFL);
+	}
+
+	private static int getSlot(long pair) {
+		return (int) ((pair * 0x9E3779B97F4A7C15L) >>> (64 - BITS));
+	}
+}
@@ -0,0 +1,83 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.util;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * 
+ * Mutable counterpart to {@link net.minecraft.util.math.Vec3d} for code that runs every tick or
+ * frame; keep one instance per user and overwrite it instead of allocating a new vector.
+ * 
+ * Setters return this instance so calls can be chained, e.g. {@code vec.set(x, y, z).normalize()}.
+ *
+ */
+public class MutableVec3
+{
+	public double x;
+	public double y;
+	public double z;
+
+	public MutableVec3() {}
+
+	public MutableVec3 set(double x, double y, double z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+
+	/**
+	 * Sets this vector to the entity's look vector, the same as {@link Entity#getLookVec()}
+	 */
+	public MutableVec3 setLook(Entity entity) {
+		float yaw = (entity instanceof EntityLivingBase ? ((EntityLivingBase) entity).rotationYawHead : entity.rotationYaw);
+		float f = MathHelper.cos(-yaw * 0.017453292F - (float) Math.PI);
+		float f1 = MathHelper.sin(-yaw * 0.017453292F - (float) Math.PI);
+		float f2 = -MathHelper.cos(-entity.rotationPitch * 0.017453292F);
+		float f3 = MathHelper.sin(-entity.rotationPitch * 0.017453292F);
+		return set((double)(f1 * f2), (double) f3, (double)(f * f2));
+	}
+
+	/**
+	 * Scales this vector to unit length, or sets it to zero if it is too short, the same as {@link net.minecraft.util.math.Vec3d#normalize()}
+	 */
+	public MutableVec3 normalize() {
+		double length = (double) MathHelper.sqrt(x * x + y * y + z * z);
+		return (length < 1.0E-4D ? set(0.0D, 0.0D, 0.0D) : set(x / length, y / length, z / length));
+	}
+
+	public double lengthSquared() {
+		return x * x + y * y + z * z;
+	}
+
+	public double lengthVector() {
+		return (double) MathHelper.sqrt(x * x + y * y + z * z);
+	}
+
+	public double dotProduct(double x, double y, double z) {
+		return this.x * x + this.y * y + this.z * z;
+	}
+
+	@Override
+	public String toString() {
+		return "(" + x + ", " + y + ", " + z + ")";
+	}
+}
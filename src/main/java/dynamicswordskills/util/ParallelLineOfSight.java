@@ -0,0 +1,398 @@
+/**
+    Copyright (C) <2017> <coolAlias>
+
+    This file is part of coolAlias' Dynamic Sword Skills Minecraft Mod; as such,
+    you can redistribute it and/or modify it under the terms of the GNU
+    General Public License as published by the Free Software Foundation,
+    either version 3 of the License, or (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package dynamicswordskills.util;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+import dynamicswordskills.DynamicSwordSkills;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * 
+ * Evaluates {@link EntityLivingBase#canEntityBeSeen} for many targets at once by tracing the
+ * rays on a small fork-join pool against a read-only snapshot of the blocks around the seeker.
+ * 
+ * The snapshot is captured on the calling thread, reading only chunks that are already loaded,
+ * and the worker threads never touch the world. Each ray replicates the block walk of
+ * {@link World#rayTraceBlocks(Vec3d, Vec3d, boolean, boolean, boolean)}, so results match a live
+ * trace exactly. Rays that reach a block whose class overrides {@link Block#collisionRayTrace},
+ * or an unloaded chunk, or that leave the snapshot, are traced live on the calling thread
+ * afterwards. Results are read from and stored to the {@link LineOfSightCache}.
+ *
+ */
+public class ParallelLineOfSight
+{
+	/**
+	 * Fewer rays than this to trace are not worth a snapshot and are traced on the calling thread;
+	 * below roughly 30 (open ground) to 70 (cluttered) rays, capturing the snapshot alone costs the
+	 * calling thread more than tracing every ray live, even with four worker threads
+	 */
+	private static final int MIN_PARALLEL_RAYS = 64;
+
+	/** Number of worker threads; with fewer than 2 the snapshot never pays off and is not used */
+	private static final int PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors() - 1);
+
+	/** Number of rays each fork-join task traces without splitting further */
+	private static final int RAYS_PER_TASK = 4;
+
+	/** Snapshots spanning more blocks than this are not captured */
+	private static final int MAX_SNAPSHOT_VOLUME = 32768;
+
+	/** Block walk limit used by World#rayTraceBlocks */
+	private static final int MAX_TRACE_STEPS = 200;
+
+	/** Ray results */
+	private static final byte VISIBLE = 1, BLOCKED = 0, TRACE_LIVE = -1;
+
+	/** Snapshot flags: block is tested when the ray starts in it, when the ray enters it, or requires a live trace */
+	private static final byte TEST_START = 1, TEST_ENTERED = 2, COMPLEX = 4;
+
+	/** Obfuscated name of Block#collisionRayTrace */
+	private static final String COLLISION_RAY_TRACE_SRG = "func_180636_a";
+
+	/** Whether each block class uses the default collisionRayTrace */
+	private static final Map<Class<?>, Boolean> SIMPLE_BLOCKS = new ConcurrentHashMap<Class<?>, Boolean>();
+
+	private static ForkJoinPool pool;
+
+	private ParallelLineOfSight() {}
+
+	/**
+	 * Sets each element of results to {@link LineOfSightCache#canEntityBeSeen LineOfSightCache.canEntityBeSeen(seeker, target)}
+	 * for the target at the same index
+	 * @param results	Must be at least as long as the list of targets
+	 */
+	public static void canEntitiesBeSeen(EntityLivingBase seeker, List<? extends Entity> targets, boolean[] results) {
+		int[] pending = new int[targets.size()];
+		int count = 0;
+		for (int i = 0; i < targets.size(); ++i) {
+			int cached = LineOfSightCache.getCachedResult(seeker, targets.get(i));
+			if (cached > -1) {
+				results[i] = (cached == 1);
+			} else {
+				pending[count++] = i;
+			}
+		}
+		byte[] traced = (count < MIN_PARALLEL_RAYS || PARALLELISM < 2 ? null : traceInParallel(seeker, targets, pending, count));
+		for (int n = 0; n < count; ++n) {
+			Entity target = targets.get(pending[n]);
+			if (traced == null || traced[n] == TRACE_LIVE) {
+				results[pending[n]] = LineOfSightCache.canEntityBeSeen(seeker, target);
+			} else {
+				results[pending[n]] = (traced[n] == VISIBLE);
+				LineOfSightCache.putResult(seeker, target, results[pending[n]]);
+			}
+		}
+	}
+
+	/**
+	 * Captures a snapshot and traces the pending rays on the pool
+	 * @return the result of each pending ray, or null if no snapshot could be captured
+	 */
+	private static byte[] traceInParallel(EntityLivingBase seeker, List<? extends Entity> targets, int[] pending, int count) {
+		double[] rays = new double[count * 6];
+		double sx = seeker.posX;
+		double sy = seeker.posY + seeker.getEyeHeight();
+		double sz = seeker.posZ;
+		double minX = sx, minY = sy, minZ = sz, maxX = sx, maxY = sy, maxZ = sz;
+		for (int n = 0; n < count; ++n) {
+			Entity target = targets.get(pending[n]);
+			int r = n * 6;
+			rays[r] = sx;
+			rays[r + 1] = sy;
+			rays[r + 2] = sz;
+			rays[r + 3] = target.posX;
+			rays[r + 4] = target.posY + target.getEyeHeight();
+			rays[r + 5] = target.posZ;
+			minX = Math.min(minX, rays[r + 3]);
+			minY = Math.min(minY, rays[r + 4]);
+			minZ = Math.min(minZ, rays[r + 5]);
+			maxX = Math.max(maxX, rays[r + 3]);
+			maxY = Math.max(maxY, rays[r + 4]);
+			maxZ = Math.max(maxZ, rays[r + 5]);
+		}
+		if (Double.isNaN(minX + minY + minZ + maxX + maxY + maxZ)) {
+			return null;
+		}
+		// one block margin for the walk stepping onto a boundary face
+		Snapshot snapshot = Snapshot.capture(seeker.getEntityWorld(), MathHelper.floor(minX) - 1, MathHelper.floor(minY) - 1, MathHelper.floor(minZ) - 1,
+				MathHelper.floor(maxX) + 1, MathHelper.floor(maxY) + 1, MathHelper.floor(maxZ) + 1);
+		if (snapshot == null) {
+			return null;
+		}
+		byte[] traced = new byte[count];
+		try {
+			getPool().invoke(new TraceTask(snapshot, rays, traced, 0, count));
+		} catch (RuntimeException e) {
+			DynamicSwordSkills.logger.warn("Parallel line of sight failed; tracing on the calling thread instead", e);
+			return null;
+		}
+		return traced;
+	}
+
+	private static synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			pool = new ForkJoinPool(PARALLELISM, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+				@Override
+				public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+					ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+					thread.setName("DSS Line of Sight " + thread.getPoolIndex());
+					return thread;
+				}
+			}, null, false);
+		}
+		return pool;
+	}
+
+	/**
+	 * Returns true if the block class does not override {@link Block#collisionRayTrace},
+	 * i.e. tracing its bounding box from the snapshot gives the same result as a live trace
+	 */
+	private static boolean isSimple(Block block) {
+		Boolean simple = SIMPLE_BLOCKS.get(block.getClass());
+		if (simple == null) {
+			simple = Boolean.TRUE;
+			for (Class<?> c = block.getClass(); c != Block.class && simple; c = c.getSuperclass()) {
+				for (Method method : c.getDeclaredMethods()) {
+					String name = method.getName();
+					if ((name.equals("collisionRayTrace") || name.equals(COLLISION_RAY_TRACE_SRG)) && method.getParameterTypes().length == 5) {
+						simple = Boolean.FALSE;
+						break;
+					}
+				}
+			}
+			SIMPLE_BLOCKS.put(block.getClass(), simple);
+		}
+		return simple;
+	}
+
+	/**
+	 * 
+	 * Read-only copy of the ray trace relevant data of every block in a volume
+	 *
+	 */
+	private static class Snapshot
+	{
+		private final int minX, minY, minZ, sizeX, sizeY, sizeZ;
+
+		private final byte[] flags;
+
+		/** Bounding box of each block that may be hit, relative to its position */
+		private final AxisAlignedBB[] boxes;
+
+		private Snapshot(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+			this.minX = minX;
+			this.minY = minY;
+			this.minZ = minZ;
+			this.sizeX = sizeX;
+			this.sizeY = sizeY;
+			this.sizeZ = sizeZ;
+			this.flags = new byte[sizeX * sizeY * sizeZ];
+			this.boxes = new AxisAlignedBB[flags.length];
+		}
+
+		/**
+		 * Captures the blocks between the given coordinates, inclusive, or returns null if the volume is too large.
+		 * Chunks that are not loaded are not loaded here; their blocks are flagged to be traced live instead.
+		 */
+		static Snapshot capture(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+			long volume = (long)(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+			if (volume > MAX_SNAPSHOT_VOLUME) {
+				return null;
+			}
+			Snapshot snapshot = new Snapshot(minX, minY, minZ, maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1);
+			for (int cx = minX >> 4; cx <= maxX >> 4; ++cx) {
+				for (int cz = minZ >> 4; cz <= maxZ >> 4; ++cz) {
+					Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+					for (int x = Math.max(minX, cx << 4); x <= Math.min(maxX, (cx << 4) + 15); ++x) {
+						for (int z = Math.max(minZ, cz << 4); z <= Math.min(maxZ, (cz << 4) + 15); ++z) {
+							for (int y = minY; y <= maxY; ++y) {
+								int i = ((x - minX) * snapshot.sizeY + (y - minY)) * snapshot.sizeZ + (z - minZ);
+								if (chunk == null) {
+									snapshot.flags[i] = TEST_START | TEST_ENTERED | COMPLEX;
+								} else {
+									snapshot.capture(world, chunk, x, y, z, i);
+								}
+							}
+						}
+					}
+				}
+			}
+			return snapshot;
+		}
+
+		private void capture(World world, Chunk chunk, int x, int y, int z, int i) {
+			IBlockState state = chunk.getBlockState(x, y, z);
+			if (state.getBlock() == Blocks.AIR) {
+				return;
+			}
+			// same conditions as World#rayTraceBlocks with ignoreBlockWithoutBoundingBox and without stopOnLiquid
+			BlockPos pos = new BlockPos(x, y, z);
+			Block block = state.getBlock();
+			if (!block.canCollideCheck(state, false)) {
+				return;
+			}
+			boolean collides = state.getCollisionBoundingBox(world, pos) != Block.NULL_AABB;
+			byte flag = (byte)((collides ? TEST_START : 0) | (collides || state.getMaterial() == Material.PORTAL ? TEST_ENTERED : 0));
+			if (flag != 0) {
+				if (isSimple(block)) {
+					boxes[i] = state.getBoundingBox(world, pos);
+				} else {
+					flag |= COMPLEX;
+				}
+			}
+			flags[i] = flag;
+		}
+
+		/**
+		 * Returns the result of World#rayTraceBlocks(start, end, false, true, false) == null
+		 */
+		byte trace(double x0, double y0, double z0, double x1, double y1, double z1) {
+			Vec3d start = new Vec3d(x0, y0, z0);
+			Vec3d end = new Vec3d(x1, y1, z1);
+			if (Double.isNaN(x0) || Double.isNaN(y0) || Double.isNaN(z0) || Double.isNaN(x1) || Double.isNaN(y1) || Double.isNaN(z1)) {
+				return VISIBLE;
+			}
+			int i = MathHelper.floor(x1);
+			int j = MathHelper.floor(y1);
+			int k = MathHelper.floor(z1);
+			int l = MathHelper.floor(x0);
+			int i1 = MathHelper.floor(y0);
+			int j1 = MathHelper.floor(z0);
+			byte result = test(l, i1, j1, TEST_START, start, end);
+			if (result != VISIBLE) {
+				return result;
+			}
+			int k1 = MAX_TRACE_STEPS;
+			while (k1-- >= 0) {
+				if (Double.isNaN(start.x) || Double.isNaN(start.y) || Double.isNaN(start.z)) {
+					return VISIBLE;
+				}
+				if (l == i && i1 == j && j1 == k) {
+					return VISIBLE;
+				}
+				boolean flagX = true, flagY = true, flagZ = true;
+				double d0 = 999.0D, d1 = 999.0D, d2 = 999.0D;
+				if (i > l) { d0 = (double) l + 1.0D; } else if (i < l) { d0 = (double) l + 0.0D; } else { flagX = false; }
+				if (j > i1) { d1 = (double) i1 + 1.0D; } else if (j < i1) { d1 = (double) i1 + 0.0D; } else { flagY = false; }
+				if (k > j1) { d2 = (double) j1 + 1.0D; } else if (k < j1) { d2 = (double) j1 + 0.0D; } else { flagZ = false; }
+				double d3 = 999.0D, d4 = 999.0D, d5 = 999.0D;
+				double d6 = end.x - start.x;
+				double d7 = end.y - start.y;
+				double d8 = end.z - start.z;
+				if (flagX) { d3 = (d0 - start.x) / d6; }
+				if (flagY) { d4 = (d1 - start.y) / d7; }
+				if (flagZ) { d5 = (d2 - start.z) / d8; }
+				if (d3 == -0.0D) { d3 = -1.0E-4D; }
+				if (d4 == -0.0D) { d4 = -1.0E-4D; }
+				if (d5 == -0.0D) { d5 = -1.0E-4D; }
+				// offsets replace the EnumFacing vanilla uses to step back into the block behind an east, up or south face
+				int offsetX = 0, offsetY = 0, offsetZ = 0;
+				if (d3 < d4 && d3 < d5) {
+					offsetX = (i > l ? 0 : 1);
+					start = new Vec3d(d0, start.y + d7 * d3, start.z + d8 * d3);
+				} else if (d4 < d5) {
+					offsetY = (j > i1 ? 0 : 1);
+					start = new Vec3d(start.x + d6 * d4, d1, start.z + d8 * d4);
+				} else {
+					offsetZ = (k > j1 ? 0 : 1);
+					start = new Vec3d(start.x + d6 * d5, start.y + d7 * d5, d2);
+				}
+				l = MathHelper.floor(start.x) - offsetX;
+				i1 = MathHelper.floor(start.y) - offsetY;
+				j1 = MathHelper.floor(start.z) - offsetZ;
+				result = test(l, i1, j1, TEST_ENTERED, start, end);
+				if (result != VISIBLE) {
+					return result;
+				}
+			}
+			return VISIBLE;
+		}
+
+		/**
+		 * Returns BLOCKED if the segment hits the block, TRACE_LIVE if the block can not be tested from the snapshot, or VISIBLE
+		 */
+		private byte test(int x, int y, int z, byte test, Vec3d start, Vec3d end) {
+			if (x < minX || y < minY || z < minZ || x >= minX + sizeX || y >= minY + sizeY || z >= minZ + sizeZ) {
+				return TRACE_LIVE;
+			}
+			int index = ((x - minX) * sizeY + (y - minY)) * sizeZ + (z - minZ);
+			if ((flags[index] & test) == 0) {
+				return VISIBLE;
+			} else if ((flags[index] & COMPLEX) != 0) {
+				return TRACE_LIVE;
+			}
+			// same as Block#rayTrace
+			Vec3d from = start.subtract((double) x, (double) y, (double) z);
+			Vec3d to = end.subtract((double) x, (double) y, (double) z);
+			return (boxes[index].calculateIntercept(from, to) == null ? VISIBLE : BLOCKED);
+		}
+	}
+
+	/**
+	 * 
+	 * Traces a range of rays, splitting it in half until it is small enough
+	 *
+	 */
+	@SuppressWarnings("serial")
+	private static class TraceTask extends RecursiveAction
+	{
+		private final Snapshot snapshot;
+		private final double[] rays;
+		private final byte[] results;
+		private final int from, to;
+
+		TraceTask(Snapshot snapshot, double[] rays, byte[] results, int from, int to) {
+			this.snapshot = snapshot;
+			this.rays = rays;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= RAYS_PER_TASK) {
+				for (int n = from; n < to; ++n) {
+					int r = n * 6;
+					results[n] = snapshot.trace(rays[r], rays[r + 1], rays[r + 2], rays[r + 3], rays[r + 4], rays[r + 5]);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new TraceTask(snapshot, rays, results, from, middle), new TraceTask(snapshot, rays, results, middle, to));
+			}
+		}
+	}
+}
@@ -18,17 +18,25 @@
 package dynamicswordskills.util;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
+import dynamicswordskills.ref.Config;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.EntitySelectors;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
@@ -44,6 +52,16 @@ public class TargetUtils
 	private static final int MAX_DISTANCE = 256;
 	/** Max distance squared, used for comparing target distances (avoids having to call sqrt) */
 	private static final double MAX_DISTANCE_SQ = MAX_DISTANCE * MAX_DISTANCE;
+	/** Field of view within which targets are considered in sight */
+	private static final float SIGHT_FOV = 60.0F;
+
+	/** Reusable look vector for target searches */
+	private static final ThreadLocal<MutableVec3> LOOK = new ThreadLocal<MutableVec3>() {
+		@Override
+		protected MutableVec3 initialValue() {
+			return new MutableVec3();
+		}
+	};
 
 	/**
 	 * Returns the player's current reach distance based on game mode.
@@ -62,7 +80,7 @@ public class TargetUtils
 	 * for predicting misses from the client side; does not use the mouse over object.
 	 */
 	public static boolean canReachTarget(EntityPlayer player, Entity target) {
-		return (player.canEntityBeSeen(target) && player.getDistanceSq(target) < getReachDistanceSq(player));
+		return (player.getDistanceSq(target) < getReachDistanceSq(player) && LineOfSightCache.canEntityBeSeen(player, target));
 	}
 
 	/**
@@ -73,44 +91,140 @@ public class TargetUtils
 	 * @param flag		Optional flag to allow collision with shooter, e.g. (ticksInAir >= 5)
 	 */
 	public static RayTraceResult checkForImpact(World world, Entity entity, Entity shooter, double hitBox, boolean flag) {
+		ImpactResult impact = new ImpactResult();
+		return (checkForImpact(world, entity, shooter, hitBox, flag, impact) ? impact.toRayTraceResult() : null);
+	}
+
+	/**
+	 * Version of {@link #checkForImpact(World, Entity, Entity, double, boolean)} that fills in a reusable result
+	 * and candidate list instead of allocating new ones each tick; the block trace and entity query still create
+	 * their usual vectors and bounding box. Sweeps the entity's motion for this tick against nearby entities'
+	 * bounding boxes, stopping at the nearest block hit.
+	 * @param impact	Reusable hit record, reset and then filled in with the impact details
+	 * @return true if anything was struck
+	 */
+	public static boolean checkForImpact(World world, Entity entity, Entity shooter, double hitBox, boolean flag, ImpactResult impact) {
+		impact.reset();
 		double posY = entity.posY + (entity.height / 2.0D); // fix for Dash
-		Vec3d vec3 = new Vec3d(entity.posX, posY, entity.posZ);
-		Vec3d vec31 = new Vec3d(entity.posX + entity.motionX, posY + entity.motionY, entity.posZ + entity.motionZ);
-		RayTraceResult result = world.rayTraceBlocks(vec3, vec31, false, true, false);
-		vec3 = new Vec3d(entity.posX, posY, entity.posZ);
-		vec31 = new Vec3d(entity.posX + entity.motionX, posY + entity.motionY, entity.posZ + entity.motionZ);
-		if (result != null) {
-			vec31 = new Vec3d(result.hitVec.x, result.hitVec.y, result.hitVec.z);
+		double dx = entity.motionX;
+		double dy = entity.motionY;
+		double dz = entity.motionZ;
+		RayTraceResult result = world.rayTraceBlocks(new Vec3d(entity.posX, posY, entity.posZ), new Vec3d(entity.posX + dx, posY + dy, entity.posZ + dz), false, true, false);
+		if (result != null && result.typeOfHit == RayTraceResult.Type.BLOCK) {
+			impact.typeOfHit = RayTraceResult.Type.BLOCK;
+			impact.blockPos = result.getBlockPos();
+			impact.sideHit = result.sideHit;
+			impact.hitX = result.hitVec.x;
+			impact.hitY = result.hitVec.y;
+			impact.hitZ = result.hitVec.z;
+			// entities beyond the block can not be struck
+			dx = impact.hitX - entity.posX;
+			dy = impact.hitY - posY;
+			dz = impact.hitZ - entity.posZ;
 		}
+		List<Entity> list = IMPACT_CANDIDATES.get();
+		AxisAlignedBB bb = entity.getEntityBoundingBox();
+		getEntitiesInAABBExcluding(world, entity, new AxisAlignedBB(
+				Math.min(bb.minX, bb.minX + entity.motionX) - 1.0D, Math.min(bb.minY, bb.minY + entity.motionY) - 1.0D, Math.min(bb.minZ, bb.minZ + entity.motionZ) - 1.0D,
+				Math.max(bb.maxX, bb.maxX + entity.motionX) + 1.0D, Math.max(bb.maxY, bb.maxY + entity.motionY) + 1.0D, Math.max(bb.maxZ, bb.maxZ + entity.motionZ) + 1.0D), list);
 		Entity target = null;
-		List<Entity> list = world.getEntitiesWithinAABBExcludingEntity(entity, entity.getEntityBoundingBox().expand(entity.motionX, entity.motionY, entity.motionZ).expand(1.0D, 1.0D, 1.0D));
-		double d0 = 0.0D;
+		double nearest = Double.MAX_VALUE;
 		for (int i = 0; i < list.size(); ++i) {
 			Entity entity1 = list.get(i);
 			if (entity1.canBeCollidedWith() && (entity1 != shooter || flag)) {
-				AxisAlignedBB axisalignedbb = entity1.getEntityBoundingBox().expand(hitBox, hitBox, hitBox);
-				RayTraceResult result1 = axisalignedbb.calculateIntercept(vec3, vec31);
-				if (result1 != null) {
-					double d1 = vec3.distanceTo(result1.hitVec);
-					if (d1 < d0 || d0 == 0.0D) {
-						target = entity1;
-						d0 = d1;
-					}
+				double t = getSegmentIntercept(entity1.getEntityBoundingBox(), hitBox, entity.posX, posY, entity.posZ, dx, dy, dz);
+				if (t >= 0.0D && t < nearest) {
+					target = entity1;
+					nearest = t;
 				}
 			}
 		}
+		list.clear(); // don't hold on to entities between calls
 		if (target != null) {
-			result = new RayTraceResult(target);
+			impact.reset();
+			impact.typeOfHit = RayTraceResult.Type.ENTITY;
+			impact.entityHit = target;
+			impact.hitX = entity.posX + dx * nearest;
+			impact.hitY = posY + dy * nearest;
+			impact.hitZ = entity.posZ + dz * nearest;
+			if (target instanceof EntityPlayer) {
+				EntityPlayer player = (EntityPlayer) target;
+				if (player.capabilities.disableDamage || (shooter instanceof EntityPlayer
+						&& !((EntityPlayer) shooter).canAttackPlayer(player)))
+				{
+					impact.reset();
+				}
+			}
 		}
-		if (result != null && result.entityHit instanceof EntityPlayer) {
-			EntityPlayer player = (EntityPlayer) result.entityHit;
-			if (player.capabilities.disableDamage || (shooter instanceof EntityPlayer
-					&& !((EntityPlayer) shooter).canAttackPlayer(player)))
-			{
-				result = null;
+		return impact.typeOfHit != RayTraceResult.Type.MISS;
+	}
+
+	/** Reusable candidate list for {@link #checkForImpact(World, Entity, Entity, double, boolean, ImpactResult)} */
+	private static final ThreadLocal<List<Entity>> IMPACT_CANDIDATES = new ThreadLocal<List<Entity>>() {
+		@Override
+		protected List<Entity> initialValue() {
+			return new ArrayList<Entity>();
+		}
+	};
+
+	/**
+	 * Fills the list with all entities other than the one given whose bounding boxes intersect the area,
+	 * the same as {@link World#getEntitiesWithinAABBExcludingEntity} but without allocating a new list
+	 */
+	private static void getEntitiesInAABBExcluding(World world, Entity entity, AxisAlignedBB bb, List<Entity> list) {
+		int minX = MathHelper.floor((bb.minX - World.MAX_ENTITY_RADIUS) / 16.0D);
+		int maxX = MathHelper.floor((bb.maxX + World.MAX_ENTITY_RADIUS) / 16.0D);
+		int minZ = MathHelper.floor((bb.minZ - World.MAX_ENTITY_RADIUS) / 16.0D);
+		int maxZ = MathHelper.floor((bb.maxZ + World.MAX_ENTITY_RADIUS) / 16.0D);
+		for (int x = minX; x <= maxX; ++x) {
+			for (int z = minZ; z <= maxZ; ++z) {
+				Chunk chunk = world.getChunkProvider().getLoadedChunk(x, z);
+				if (chunk != null) {
+					chunk.getEntitiesWithinAABBForEntity(entity, bb, list, EntitySelectors.NOT_SPECTATING);
+				}
 			}
 		}
-		return result;
+	}
+
+	/**
+	 * Returns the fraction [0, 1] of the segment from (x, y, z) along (dx, dy, dz) at which it first
+	 * crosses a face of the box expanded by the given amount, or -1 if it does not cross any face,
+	 * matching {@link AxisAlignedBB#calculateIntercept}
+	 */
+	private static double getSegmentIntercept(AxisAlignedBB bb, double expand, double x, double y, double z, double dx, double dy, double dz) {
+		double minX = bb.minX - expand, maxX = bb.maxX + expand;
+		double minY = bb.minY - expand, maxY = bb.maxY + expand;
+		double minZ = bb.minZ - expand, maxZ = bb.maxZ + expand;
+		double enter = Double.NEGATIVE_INFINITY;
+		double exit = Double.POSITIVE_INFINITY;
+		if (dx != 0.0D) {
+			double t0 = (minX - x) / dx, t1 = (maxX - x) / dx;
+			enter = Math.max(enter, Math.min(t0, t1));
+			exit = Math.min(exit, Math.max(t0, t1));
+		} else if (x < minX || x > maxX) {
+			return -1.0D;
+		}
+		if (dy != 0.0D) {
+			double t0 = (minY - y) / dy, t1 = (maxY - y) / dy;
+			enter = Math.max(enter, Math.min(t0, t1));
+			exit = Math.min(exit, Math.max(t0, t1));
+		} else if (y < minY || y > maxY) {
+			return -1.0D;
+		}
+		if (dz != 0.0D) {
+			double t0 = (minZ - z) / dz, t1 = (maxZ - z) / dz;
+			enter = Math.max(enter, Math.min(t0, t1));
+			exit = Math.min(exit, Math.max(t0, t1));
+		} else if (z < minZ || z > maxZ) {
+			return -1.0D;
+		}
+		if (enter > exit) {
+			return -1.0D;
+		} else if (enter >= 0.0D) {
+			return (enter <= 1.0D ? enter : -1.0D);
+		}
+		// segment starts inside the box, so the first face crossed is on the way out
+		return (exit <= 1.0D ? exit : -1.0D);
 	}
 
 	/**
@@ -147,9 +261,81 @@ public class TargetUtils
 		if (distance < 0 || distance > MAX_DISTANCE) {
 			distance = MAX_DISTANCE;
 		}
+		if (!Config.useSweptTargeting()) {
+			return acquireLookTargetStepwise(seeker, distance, radius, closestToSeeker);
+		}
+		MutableVec3 vec3 = LOOK.get().setLook(seeker);
+		double x = seeker.posX;
+		double y = seeker.posY + seeker.getEyeHeight() - 0.10000000149011612D;
+		double z = seeker.posZ;
+		int steps = getSearchSteps(vec3, distance);
+		if (Config.useParallelSight()) {
+			return acquireLookTargetParallel(seeker, vec3, x, y, z, steps, radius, closestToSeeker);
+		}
 		EntityLivingBase currentTarget = null;
 		double currentDistance = MAX_DISTANCE_SQ;
-		Vec3d vec3 = seeker.getLookVec();
+		for (EntityLivingBase target : EntitySpatialIndex.getEntitiesWithinAABB(seeker.getEntityWorld(), getSearchVolume(vec3, x, y, z, steps, radius))) {
+			if (target == seeker || !target.canBeCollidedWith()) {
+				continue;
+			}
+			int step = getClosestSearchStep(target, vec3, x, y, z, steps, radius);
+			if (step > 0 && isTargetInSight(seeker, target)) {
+				double newDistance = (closestToSeeker ? target.getDistanceSq(seeker) : target.getDistanceSq(x + vec3.x * step, y + vec3.y * step, z + vec3.z * step));
+				if (newDistance < currentDistance) {
+					currentTarget = target;
+					currentDistance = newDistance;
+				}
+			}
+		}
+		return currentTarget;
+	}
+
+	/**
+	 * Version of {@link #acquireLookTarget(EntityLivingBase, int, double, boolean)} that gathers every candidate
+	 * in front of the seeker first, then checks line of sight to all of them with {@link ParallelLineOfSight};
+	 * candidates are compared in the same order, so the same target is returned
+	 */
+	private static final EntityLivingBase acquireLookTargetParallel(EntityLivingBase seeker, MutableVec3 vec3, double x, double y, double z, int steps, double radius, boolean closestToSeeker) {
+		List<EntityLivingBase> candidates = EntitySpatialIndex.getEntitiesWithinAABB(seeker.getEntityWorld(), getSearchVolume(vec3, x, y, z, steps, radius));
+		int[] candidateSteps = new int[candidates.size()];
+		int size = 0;
+		for (int i = 0; i < candidates.size(); ++i) {
+			EntityLivingBase target = candidates.get(i);
+			if (target != seeker && target.canBeCollidedWith()) {
+				int step = getClosestSearchStep(target, vec3, x, y, z, steps, radius);
+				if (step > 0 && isTargetInFrontOf(seeker, target, SIGHT_FOV)) {
+					candidates.set(size, target);
+					candidateSteps[size++] = step;
+				}
+			}
+		}
+		candidates.subList(size, candidates.size()).clear();
+		boolean[] visible = new boolean[size];
+		ParallelLineOfSight.canEntitiesBeSeen(seeker, candidates, visible);
+		EntityLivingBase currentTarget = null;
+		double currentDistance = MAX_DISTANCE_SQ;
+		for (int i = 0; i < size; ++i) {
+			if (visible[i]) {
+				EntityLivingBase target = candidates.get(i);
+				int step = candidateSteps[i];
+				double newDistance = (closestToSeeker ? target.getDistanceSq(seeker) : target.getDistanceSq(x + vec3.x * step, y + vec3.y * step, z + vec3.z * step));
+				if (newDistance < currentDistance) {
+					currentTarget = target;
+					currentDistance = newDistance;
+				}
+			}
+		}
+		return currentTarget;
+	}
+
+	/**
+	 * Legacy version of {@link #acquireLookTarget(EntityLivingBase, int, double, boolean)} that
+	 * queries the world once per block along the look vector
+	 */
+	private static final EntityLivingBase acquireLookTargetStepwise(EntityLivingBase seeker, int distance, double radius, boolean closestToSeeker) {
+		EntityLivingBase currentTarget = null;
+		double currentDistance = MAX_DISTANCE_SQ;
+		MutableVec3 vec3 = LOOK.get().setLook(seeker);
 		double targetX = seeker.posX;
 		double targetY = seeker.posY + seeker.getEyeHeight() - 0.10000000149011612D;
 		double targetZ = seeker.posZ;
@@ -163,7 +349,7 @@ public class TargetUtils
 			AxisAlignedBB bb = new AxisAlignedBB(targetX-radius, targetY-radius, targetZ-radius, targetX+radius, targetY+radius, targetZ+radius);
 			List<EntityLivingBase> list = seeker.getEntityWorld().getEntitiesWithinAABB(EntityLivingBase.class, bb);
 			for (EntityLivingBase target : list) {
-				if (target != seeker && target.canBeCollidedWith() && isTargetInSight(vec3, seeker, target)) {
+				if (target != seeker && target.canBeCollidedWith() && isTargetInSight(seeker, target)) {
 					double newDistance = (closestToSeeker ? target.getDistanceSq(seeker) : target.getDistanceSq(targetX, targetY, targetZ));
 					if (newDistance < currentDistance) {
 						currentTarget = target;
@@ -176,37 +362,120 @@ public class TargetUtils
 		return currentTarget;
 	}
 
+	/**
+	 * Returns the number of one-block steps the look target search takes along the look vector
+	 */
+	private static int getSearchSteps(MutableVec3 look, int distance) {
+		double length = look.lengthVector();
+		double distanceTraveled = 0;
+		int steps = 0;
+		while ((int) distanceTraveled < distance) {
+			distanceTraveled += length;
+			++steps;
+		}
+		return steps;
+	}
+
+	/**
+	 * Returns the volume swept by the search box at every step along the look vector from the origin
+	 */
+	private static AxisAlignedBB getSearchVolume(MutableVec3 look, double x, double y, double z, int steps, double radius) {
+		return new AxisAlignedBB(x + look.x, y + look.y, z + look.z, x + look.x * steps, y + look.y * steps, z + look.z * steps).grow(radius);
+	}
+
+	/**
+	 * Returns the step along the look vector, from 1 to steps, at which the search box is closest
+	 * to the target's position while still intersecting its bounding box, or -1 if the search box
+	 * never intersects it; this is the step at which the stepwise search would have selected it.
+	 * @param x, y, z The origin of the search, i.e. the seeker's eye position
+	 */
+	private static int getClosestSearchStep(Entity target, MutableVec3 look, double x, double y, double z, int steps, double radius) {
+		AxisAlignedBB bb = target.getEntityBoundingBox();
+		// the boxes intersect for steps strictly between min and max along every axis
+		double min = Math.max(getSlabEntry(x, look.x, bb.minX - radius, bb.maxX + radius),
+				Math.max(getSlabEntry(y, look.y, bb.minY - radius, bb.maxY + radius), getSlabEntry(z, look.z, bb.minZ - radius, bb.maxZ + radius)));
+		double max = Math.min(getSlabExit(x, look.x, bb.minX - radius, bb.maxX + radius),
+				Math.min(getSlabExit(y, look.y, bb.minY - radius, bb.maxY + radius), getSlabExit(z, look.z, bb.minZ - radius, bb.maxZ + radius)));
+		if (min >= max) {
+			return -1;
+		}
+		int first = Math.max(1, (int) Math.floor(min) + 1);
+		int last = Math.min(steps, (int) Math.ceil(max) - 1);
+		if (first > last) {
+			return -1;
+		}
+		// distance to the target is a parabola in the step; its minimum is the projection onto the look vector
+		double lengthSq = look.lengthSquared();
+		double closest = ((target.posX - x) * look.x + (target.posY - y) * look.y + (target.posZ - z) * look.z) / (lengthSq == 0.0D ? 1.0D : lengthSq);
+		return (int) Math.max(first, Math.min(last, Math.round(closest)));
+	}
+
+	/**
+	 * Returns the step along one axis at which a point moving from origin by dir each step enters the open interval (lower, upper)
+	 */
+	private static double getSlabEntry(double origin, double dir, double lower, double upper) {
+		if (dir == 0.0D) {
+			return (origin > lower && origin < upper ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+		}
+		return Math.min((lower - origin) / dir, (upper - origin) / dir);
+	}
+
+	/**
+	 * Returns the step along one axis at which a point moving from origin by dir each step leaves the open interval (lower, upper)
+	 */
+	private static double getSlabExit(double origin, double dir, double lower, double upper) {
+		if (dir == 0.0D) {
+			return (origin > lower && origin < upper ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+		}
+		return Math.max((lower - origin) / dir, (upper - origin) / dir);
+	}
+
 	/**
 	 * Similar to the single entity version, but this method returns a List of all EntityLivingBase entities
 	 * that are within the entity's field of vision, up to a certain range and distance away
 	 */
 	public static final List<EntityLivingBase> acquireAllLookTargets(EntityLivingBase seeker, int distance, double radius) {
+		return acquireAllLookTargets(seeker, distance, radius, new ArrayList<EntityLivingBase>());
+	}
+
+	/**
+	 * Same as {@link #acquireAllLookTargets(EntityLivingBase, int, double)}, but the targets are
+	 * added to the given list after clearing it, so that callers may reuse the same list
+	 * @return the targets list, containing each target only once
+	 */
+	public static final List<EntityLivingBase> acquireAllLookTargets(EntityLivingBase seeker, int distance, double radius, List<EntityLivingBase> targets) {
+		targets.clear();
 		if (distance < 0 || distance > MAX_DISTANCE) {
 			distance = MAX_DISTANCE;
 		}
-		List<EntityLivingBase> targets = new ArrayList<EntityLivingBase>();
-		Vec3d vec3 = seeker.getLookVec();
-		double targetX = seeker.posX;
-		double targetY = seeker.posY + seeker.getEyeHeight() - 0.10000000149011612D;
-		double targetZ = seeker.posZ;
-		double distanceTraveled = 0;
-
-		while ((int) distanceTraveled < distance) {
-			targetX += vec3.x;
-			targetY += vec3.y;
-			targetZ += vec3.z;
-			distanceTraveled += vec3.lengthVector();
+		MutableVec3 vec3 = LOOK.get().setLook(seeker);
+		double x = seeker.posX;
+		double y = seeker.posY + seeker.getEyeHeight() - 0.10000000149011612D;
+		double z = seeker.posZ;
+		int steps = getSearchSteps(vec3, distance);
+		if (Config.useSweptTargeting()) {
+			// a single query never returns the same entity twice
+			for (EntityLivingBase target : EntitySpatialIndex.getEntitiesWithinAABB(seeker.getEntityWorld(), getSearchVolume(vec3, x, y, z, steps, radius))) {
+				if (target != seeker && target.canBeCollidedWith() && getClosestSearchStep(target, vec3, x, y, z, steps, radius) > 0 && isTargetInSight(seeker, target)) {
+					targets.add(target);
+				}
+			}
+			return targets;
+		}
+		Set<EntityLivingBase> found = Collections.newSetFromMap(new IdentityHashMap<EntityLivingBase, Boolean>());
+		for (int i = 1; i <= steps; ++i) {
+			double targetX = x + vec3.x * i;
+			double targetY = y + vec3.y * i;
+			double targetZ = z + vec3.z * i;
 			AxisAlignedBB bb = new AxisAlignedBB(targetX-radius, targetY-radius, targetZ-radius, targetX+radius, targetY+radius, targetZ+radius);
 			List<EntityLivingBase> list = seeker.getEntityWorld().getEntitiesWithinAABB(EntityLivingBase.class, bb);
 			for (EntityLivingBase target : list) {
-				if (target != seeker && target.canBeCollidedWith() && isTargetInSight(vec3, seeker, target)) {
-					if (!targets.contains(target)) {
-						targets.add(target);
-					}
+				// check the set first so that each target's line of sight is only tested once
+				if (target != seeker && target.canBeCollidedWith() && found.add(target) && isTargetInSight(seeker, target)) {
+					targets.add(target);
 				}
 			}
 		}
-
 		return targets;
 	}
 
@@ -215,30 +484,59 @@ public class TargetUtils
 	 * @param fov seeker's field of view; a wider angle returns true more often
 	 */
 	public static final boolean isTargetInFrontOf(Entity seeker, Entity target, float fov) {
-		double dx = target.posX - seeker.posX;
-		double dz;
-		for (dz = target.posZ - seeker.posZ; dx * dx + dz * dz < 1.0E-4D; dz = (Math.random() - Math.random()) * 0.01D) {
-			dx = (Math.random() - Math.random()) * 0.01D;
+		float yaw = seeker.rotationYaw * 0.017453292F;
+		return isInCone(seeker.posX, seeker.posZ, -MathHelper.sin(yaw), MathHelper.cos(yaw), fov, MathHelper.cos(fov * 0.017453292F), target);
+	}
+
+	/**
+	 * Batch version of {@link #isTargetInFrontOf(Entity, Entity, float)}: the seeker's facing vector and
+	 * the cone threshold are computed once for all of the targets.
+	 * @param mask	Reusable bit set, cleared and then set at the index of each target that is in front of the seeker
+	 * @return the mask passed in
+	 */
+	public static final BitSet getTargetsInFrontOf(Entity seeker, List<? extends Entity> targets, float fov, BitSet mask) {
+		mask.clear();
+		float yaw = seeker.rotationYaw * 0.017453292F;
+		float facingX = -MathHelper.sin(yaw);
+		float facingZ = MathHelper.cos(yaw);
+		float cosFov = MathHelper.cos(fov * 0.017453292F);
+		for (int i = 0; i < targets.size(); ++i) {
+			if (isInCone(seeker.posX, seeker.posZ, facingX, facingZ, fov, cosFov, targets.get(i))) {
+				mask.set(i);
+			}
 		}
-		float yaw = (float)(Math.atan2(dz, dx) * 180.0D / Math.PI) - seeker.rotationYaw;
-		yaw = yaw - 90;
-		while (yaw < -180) { yaw += 360; }
-		while (yaw >= 180) { yaw -= 360; }
-		return yaw < fov && yaw > -fov;
+		return mask;
 	}
 
 	/**
-	 * Returns true if the target's position is within the area that the seeker is facing and the target can be seen
+	 * Returns true if the horizontal angle between the facing vector and the direction from (x, z) to
+	 * the target is less than the fov, using the dot product instead of computing the angle.
+	 * A target at the same position is always considered to be in front.
+	 * @param facingX	Unit facing vector x component
+	 * @param facingZ	Unit facing vector z component
+	 * @param cosFov	Cosine of the fov
 	 */
-	public static final boolean isTargetInSight(EntityLivingBase seeker, Entity target) {
-		return isTargetInSight(seeker.getLookVec(), seeker, target);
+	private static boolean isInCone(double x, double z, float facingX, float facingZ, float fov, float cosFov, Entity target) {
+		if (fov > 180.0F) {
+			return true;
+		}
+		double dx = target.posX - x;
+		double dz = target.posZ - z;
+		double lengthSq = dx * dx + dz * dz;
+		if (lengthSq < 1.0E-4D) {
+			return true;
+		}
+		// compare dot / length against cosFov without taking the square root
+		double dot = dx * facingX + dz * facingZ;
+		double limit = cosFov * cosFov * lengthSq;
+		return (cosFov < 0.0F ? (dot >= 0.0D || dot * dot < limit) : (dot > 0.0D && dot * dot > limit));
 	}
 
 	/**
 	 * Returns true if the target's position is within the area that the seeker is facing and the target can be seen
 	 */
-	private static final boolean isTargetInSight(Vec3d vec3, EntityLivingBase seeker, Entity target) {
-		return seeker.canEntityBeSeen(target) && isTargetInFrontOf(seeker, target, 60);
+	public static final boolean isTargetInSight(EntityLivingBase seeker, Entity target) {
+		return isTargetInFrontOf(seeker, target, SIGHT_FOV) && LineOfSightCache.canEntityBeSeen(seeker, target);
 	}
 
 	/**